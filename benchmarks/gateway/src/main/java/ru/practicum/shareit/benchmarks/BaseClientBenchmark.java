@@ -0,0 +1,133 @@
+package ru.practicum.shareit.benchmarks;
+
+import io.netty.buffer.Unpooled;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.RestTemplateConfig;
+import ru.practicum.shareit.user.UserClient;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Полный путь запроса через BaseClient.makeAndSendRequest до локальной заглушки сервера:
+ * обычный GET, GET с перепроверкой ETag (ответ 304 и тело из кэша шлюза) и POST.
+ * Клиент работает в неблокирующем режиме (WebClient) или в блокирующем (RestTemplate на boundedElastic).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BaseClientBenchmark {
+
+    private static final String ETAG = "\"0123456789abcdef\"";
+
+    @Param({"false", "true"})
+    private boolean etag;
+
+    @Param({"reactive", "blocking"})
+    private String client;
+
+    private DisposableServer server;
+    private CloseableHttpClient httpClient;
+    private UserClient userClient;
+    private UserDto userDto;
+
+    @Setup
+    public void setUp() {
+        byte[] body = "{\"id\":1,\"name\":\"name\",\"email\":\"email@email.com\"}".getBytes(StandardCharsets.UTF_8);
+
+        server = HttpServer.create()
+                .host("localhost")
+                .port(0)
+                .handle((request, response) -> {
+                    if (etag && ETAG.equals(request.requestHeaders().get(HttpHeaders.IF_NONE_MATCH))) {
+                        return response.status(HttpStatus.NOT_MODIFIED.value())
+                                .header(HttpHeaders.ETAG, ETAG)
+                                .send();
+                    }
+                    if (etag) {
+                        response.header(HttpHeaders.ETAG, ETAG);
+                    }
+                    return response.header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                            .header(HttpHeaders.CONTENT_LENGTH, String.valueOf(body.length))
+                            .send(Mono.just(Unpooled.wrappedBuffer(body)));
+                })
+                .bindNow();
+
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        if ("blocking".equals(client)) {
+            RestTemplateConfig config = new RestTemplateConfig();
+            httpClient = config.shareitServerHttpClient(500, Duration.ofSeconds(5), Duration.ofSeconds(30),
+                    Duration.ofSeconds(2), Duration.ofSeconds(10));
+            beanFactory.addBean("restTemplateBuilder", config.shareitServerRestTemplateBuilder(httpClient));
+        }
+        userClient = new UserClient("http://localhost:" + server.port(), WebClient.builder(),
+                beanFactory.getBeanProvider(RestTemplateBuilder.class),
+                new ResponseCache(DataSize.ofMegabytes(32), DataSize.ofKilobytes(256)));
+        userDto = UserDto.builder()
+                .name("name")
+                .email("email@email.com")
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        if (httpClient != null) {
+            httpClient.close();
+        }
+        server.disposeNow();
+    }
+
+    @Benchmark
+    public int get() {
+        return readBody(userClient.getById(1L));
+    }
+
+    @Benchmark
+    public int post() {
+        return readBody(userClient.create(userDto));
+    }
+
+    private int readBody(Mono<ResponseEntity<Flux<DataBuffer>>> response) {
+        return response
+                .flatMap(entity -> DataBufferUtils.join(entity.getBody()))
+                .map(buffer -> {
+                    int length = buffer.readableByteCount();
+                    DataBufferUtils.release(buffer);
+                    return length;
+                })
+                .block();
+    }
+}
@@ -0,0 +1,128 @@
+package ru.practicum.shareit.benchmarks;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Поиск вещей через ItemServiceImpl.search на H2 и на встроенном PostgreSQL. На PostgreSQL схема
+ * создаётся миграциями Flyway, поэтому в замер попадают и триграммные индексы.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemSearchBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"h2", "postgresql"})
+    private String database;
+
+    // На миллионе вещей видно, спасают ли триграммные индексы от полного прохода по таблице.
+    @Param({"10000", "1000000"})
+    private int itemCount;
+
+    @Param({"дрель 42", "аккумуляторная"})
+    private String text;
+
+    private EmbeddedPostgres postgres;
+    private ConfigurableApplicationContext context;
+    private ItemService itemService;
+    private Long userId;
+
+    @Setup
+    public void setUp() throws IOException {
+        List<String> properties = new ArrayList<>(List.of(
+                "spring.jpa.show-sql=false",
+                "spring.jpa.properties.hibernate.format_sql=false",
+                "spring.jpa.properties.hibernate.jdbc.batch_size=50",
+                "spring.jpa.properties.hibernate.order_inserts=true",
+                "logging.level.root=WARN"
+        ));
+        if ("postgresql".equals(database)) {
+            postgres = EmbeddedPostgres.start();
+            properties.addAll(List.of(
+                    "spring.datasource.driver-class-name=org.postgresql.Driver",
+                    "spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                    "spring.datasource.username=postgres",
+                    "spring.datasource.password=postgres",
+                    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.PostgreSQL10Dialect",
+                    "spring.jpa.hibernate.ddl-auto=none",
+                    "spring.flyway.locations=classpath:db/migration/common,classpath:db/migration/{vendor}"
+            ));
+        } else {
+            properties.addAll(List.of(
+                    "spring.datasource.driver-class-name=org.h2.Driver",
+                    "spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                    "spring.datasource.username=sa",
+                    "spring.datasource.password=",
+                    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                    "spring.jpa.hibernate.ddl-auto=create-drop",
+                    "spring.flyway.enabled=false"
+            ));
+        }
+
+        // Аргументы командной строки перекрывают application.properties сервера.
+        context = new SpringApplicationBuilder(ShareItServer.class)
+                .web(WebApplicationType.NONE)
+                .run(properties.stream()
+                        .map(property -> "--" + property)
+                        .toArray(String[]::new));
+        itemService = context.getBean(ItemService.class);
+
+        UserDto owner = context.getBean(UserService.class).add(UserDto.builder()
+                .name("owner")
+                .email("owner@email.com")
+                .build());
+        userId = owner.getId();
+
+        List<ItemDto> items = new ArrayList<>(itemCount);
+        for (int i = 0; i < itemCount; i++) {
+            items.add(ItemDto.builder()
+                    .name("Дрель " + i)
+                    .description(i % 10 == 0 ? "Аккумуляторная, с набором бит" : "Сетевая, ударная")
+                    .available(true)
+                    .build());
+        }
+        itemService.createAll(userId, items);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        context.close();
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+
+    @Benchmark
+    public List<ItemDto> search() {
+        return itemService.search(userId, text, 0, PAGE_SIZE);
+    }
+}
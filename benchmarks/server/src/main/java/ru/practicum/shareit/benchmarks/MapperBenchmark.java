@@ -0,0 +1,106 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.BookingMapper;
+import ru.practicum.shareit.booking.dto.BookingDtoOut;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.RequestMapping;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Стоимость преобразования сущностей в DTO без участия базы данных.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    @Param({"10", "100"})
+    private int itemCount;
+
+    private Booking booking;
+    private List<Item> items;
+    private ItemRequest request;
+
+    @Setup
+    public void setUp() {
+        User owner = User.builder()
+                .id(1L)
+                .name("owner")
+                .email("owner@email.com")
+                .build();
+        User booker = User.builder()
+                .id(2L)
+                .name("booker")
+                .email("booker@email.com")
+                .build();
+
+        items = new ArrayList<>(itemCount);
+        for (long i = 1; i <= itemCount; i++) {
+            items.add(Item.builder()
+                    .id(i)
+                    .name("Дрель " + i)
+                    .description("Аккумуляторная дрель " + i)
+                    .available(true)
+                    .owner(owner)
+                    .build());
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        booking = Booking.builder()
+                .id(1L)
+                .item(items.get(0))
+                .booker(booker)
+                .start(now.plusDays(1))
+                .end(now.plusDays(2))
+                .status(BookingStatus.APPROVED)
+                .build();
+
+        request = ItemRequest.builder()
+                .id(1L)
+                .description("Нужна дрель")
+                .requester(booker)
+                .created(now)
+                .items(items)
+                .build();
+    }
+
+    @Benchmark
+    public BookingDtoOut toBookingOut() {
+        return BookingMapper.toBookingOut(booking);
+    }
+
+    @Benchmark
+    public List<ItemDto> mapToItemDto() {
+        return ItemMapper.mapToItemDto(items);
+    }
+
+    @Benchmark
+    public ItemRequestDto toRequestDto() {
+        return RequestMapping.toRequestDto(request);
+    }
+}
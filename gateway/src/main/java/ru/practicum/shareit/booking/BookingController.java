@@ -3,16 +3,23 @@ package ru.practicum.shareit.booking;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Min;
+import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
+import java.util.List;
 
 @RestController
 @RequestMapping(path = "/bookings")
@@ -22,52 +29,72 @@ import javax.validation.constraints.PositiveOrZero;
 public class BookingController {
 
     private static final String REQUEST_HEADER_SHARER_USER_ID = "X-Sharer-User-Id";
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    private static final int MAX_BATCH_SIZE = 100;
     private final BookingClient bookingClient;
 
 
     @GetMapping
-    public ResponseEntity<Object> getBookings(@RequestHeader(REQUEST_HEADER_SHARER_USER_ID) long userId,
-                                              @RequestParam(name = "state", defaultValue = "ALL") String stateParam,
-                                              @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
-                                              @Positive @RequestParam(defaultValue = "10") Integer size) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getBookings(@RequestHeader(REQUEST_HEADER_SHARER_USER_ID) long userId,
+                                                              @RequestParam(name = "state", defaultValue = "ALL") String stateParam,
+                                                              @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
+                                                              @Positive @RequestParam(defaultValue = "10") Integer size,
+                                                              @RequestParam(required = false) String cursor) {
         BookingState state = BookingState.from(stateParam).orElseThrow(() ->
                 new IllegalArgumentException("Unknown state: " + stateParam));
-        log.info("Get booking with state {}, userId={}, from={}, size={}", stateParam, userId, from, size);
+        log.info("Get booking with state {}, userId={}, from={}, size={}, cursor={}", stateParam, userId, from, size,
+                cursor);
+        if (cursor != null)
+            return bookingClient.getBookingsByCursor(userId, state, cursor, size);
         return bookingClient.getBookings(userId, state, from, size);
     }
 
     @PostMapping
-    public ResponseEntity<Object> bookItem(@RequestHeader(REQUEST_HEADER_SHARER_USER_ID) long userId,
-                                           @RequestBody @Valid BookItemRequestDto requestDto) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> bookItem(@RequestHeader(REQUEST_HEADER_SHARER_USER_ID) long userId,
+                                                           @RequestBody @Valid BookItemRequestDto requestDto) {
         log.info("Creating booking {}, userId={}", requestDto, userId);
         return bookingClient.bookItem(userId, requestDto);
     }
 
     @GetMapping("/{bookingId}")
-    public ResponseEntity<Object> getBooking(@RequestHeader(REQUEST_HEADER_SHARER_USER_ID) long userId,
-                                             @PathVariable Long bookingId) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getBooking(@RequestHeader(REQUEST_HEADER_SHARER_USER_ID) long userId,
+                                                             @PathVariable Long bookingId) {
         log.info("Get booking {}, userId={}", bookingId, userId);
         return bookingClient.getBooking(userId, bookingId);
     }
 
     @GetMapping("/owner")
-    public ResponseEntity<Object> getAllOwner(@RequestHeader(REQUEST_HEADER_SHARER_USER_ID) Long ownerId,
-                                              @RequestParam(value = "state", defaultValue = "ALL") String bookingState,
-                                              @RequestParam(defaultValue = "0") @Min(0) Integer from,
-                                              @RequestParam(defaultValue = "10") @Min(1) Integer size) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getAllOwner(@RequestHeader(REQUEST_HEADER_SHARER_USER_ID) Long ownerId,
+                                                              @RequestParam(value = "state", defaultValue = "ALL") String bookingState,
+                                                              @RequestParam(defaultValue = "0") @Min(0) Integer from,
+                                                              @RequestParam(defaultValue = "10") @Min(1) Integer size,
+                                                              @RequestParam(required = false) String cursor) {
         BookingState state = BookingState.from(bookingState)
                 .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + bookingState));
-        log.info("GET запрос на получение списка всех бронирований c state {}, userId={}, from={}, size={}",
-                bookingState, ownerId, from, size);
+        log.info("GET запрос на получение списка всех бронирований c state {}, userId={}, from={}, size={}, cursor={}",
+                bookingState, ownerId, from, size, cursor);
+        if (cursor != null)
+            return bookingClient.getAllOwnerByCursor(ownerId, state, cursor, size);
         return bookingClient.getAllOwner(ownerId, state, from, size);
     }
 
+    @PatchMapping("/batch")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> updateStatuses(@RequestHeader(REQUEST_HEADER_SHARER_USER_ID) Long userId,
+                                                                 @RequestBody @NotEmpty @Size(max = MAX_BATCH_SIZE)
+                                                                 List<@Valid BookingDecisionDto> decisions) {
+        log.info("PATCH запрос на пакетное обновление статусов {} бронирований от владельца с id: {}",
+                decisions.size(), userId);
+        return bookingClient.updateAll(userId, decisions);
+    }
+
     @PatchMapping("/{bookingId}")
-    public ResponseEntity<Object> updateStatus(@RequestHeader(REQUEST_HEADER_SHARER_USER_ID) Long userId,
-                                               @PathVariable("bookingId") Long bookingId,
-                                               @RequestParam("approved") Boolean approved) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> updateStatus(@RequestHeader(REQUEST_HEADER_SHARER_USER_ID) Long userId,
+                                                               @PathVariable("bookingId") Long bookingId,
+                                                               @RequestParam("approved") Boolean approved,
+                                                               @RequestHeader(name = IDEMPOTENCY_KEY_HEADER, required = false)
+                                                               String idempotencyKey) {
         log.info("PATCH запрос на обновление статуса бронирования вещи : {} от владельца с id: {}", bookingId, userId);
-        return bookingClient.update(userId, bookingId, approved);
+        return bookingClient.update(userId, bookingId, approved, idempotencyKey);
     }
 
 }
\ No newline at end of file
@@ -1,99 +1,195 @@
 package ru.practicum.shareit.client;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
 
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.lang.Nullable;
 import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 public class BaseClient {
 
-    protected final RestTemplate rest;
+    private static final List<String> HOP_BY_HOP_HEADERS = List.of(
+            HttpHeaders.CONNECTION,
+            HttpHeaders.TRANSFER_ENCODING
+    );
 
-    public BaseClient(RestTemplate rest) {
+    protected final WebClient client;
+    @Nullable
+    private final RestTemplate rest;
+    private final ResponseCache responseCache;
+
+    public BaseClient(WebClient client, ResponseCache responseCache) {
+        this(client, null, responseCache);
+    }
+
+    /**
+     * Если передан {@code rest}, запросы к серверу выполняются через него на потоках boundedElastic,
+     * а не через {@code client} (блокирующий режим, см. {@link RestTemplateConfig}).
+     */
+    public BaseClient(WebClient client, @Nullable RestTemplate rest, ResponseCache responseCache) {
+        this.client = client;
         this.rest = rest;
+        this.responseCache = responseCache;
+    }
+
+    /**
+     * RestTemplate с базовым адресом клиента, если шлюз запущен в блокирующем режиме, иначе {@code null}.
+     */
+    @Nullable
+    protected static RestTemplate restTemplate(ObjectProvider<RestTemplateBuilder> builder, String baseUrl) {
+        RestTemplateBuilder restTemplateBuilder = builder.getIfAvailable();
+        return restTemplateBuilder == null ? null : restTemplateBuilder
+                .uriTemplateHandler(new DefaultUriBuilderFactory(baseUrl))
+                .build();
     }
 
-    protected ResponseEntity<Object> get(String path) {
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> get(String path) {
         return get(path, null, null);
     }
 
-    protected ResponseEntity<Object> get(String path, long userId) {
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> get(String path, long userId) {
         return get(path, userId, null);
     }
 
-    protected ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
-        return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
+        return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null, null);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, T body) {
+    protected <T> Mono<ResponseEntity<Flux<DataBuffer>>> post(String path, T body) {
         return post(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Flux<DataBuffer>>> post(String path, long userId, T body) {
         return post(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
-        return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
+    protected <T> Mono<ResponseEntity<Flux<DataBuffer>>> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+        return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body, null);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Flux<DataBuffer>>> put(String path, long userId, T body) {
         return put(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
-        return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body);
+    protected <T> Mono<ResponseEntity<Flux<DataBuffer>>> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
+        return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, T body) {
+    protected <T> Mono<ResponseEntity<Flux<DataBuffer>>> patch(String path, T body) {
         return patch(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId) {
+    protected <T> Mono<ResponseEntity<Flux<DataBuffer>>> patch(String path, long userId) {
         return patch(path, userId, null, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Flux<DataBuffer>>> patch(String path, long userId, T body) {
         return patch(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
-        return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
+    protected <T> Mono<ResponseEntity<Flux<DataBuffer>>> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+        return patch(path, userId, parameters, body, null);
+    }
+
+    protected <T> Mono<ResponseEntity<Flux<DataBuffer>>> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body,
+                                                               @Nullable HttpHeaders headers) {
+        return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body, headers);
     }
 
-    protected ResponseEntity<Object> delete(String path) {
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> delete(String path) {
         return delete(path, null, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, long userId) {
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> delete(String path, long userId) {
         return delete(path, userId, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
-        return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
+        return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null, null);
     }
 
-    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
+    /**
+     * Проксирует ответ сервера без буферизации и без заголовков JSON по умолчанию,
+     * например для выгрузок в формате NDJSON.
+     */
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> stream(String path) {
+        if (rest != null) {
+            return blockingExchange(HttpMethod.GET, path, Map.of(), new HttpHeaders(), null)
+                    .map(this::prepareGatewayResponse);
+        }
+        return passThrough(client.get().uri(path));
+    }
+
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> jsonResponse(String json) {
+        DataBuffer buffer = DefaultDataBufferFactory.sharedInstance.wrap(json.getBytes(StandardCharsets.UTF_8));
+        return Mono.just(ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(Flux.just(buffer)));
+    }
+
+    private <T> Mono<ResponseEntity<Flux<DataBuffer>>> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body,
+                                                                          @Nullable HttpHeaders headers) {
+        Map<String, Object> uriVariables = parameters != null ? parameters : Map.of();
+        String cacheKey = method == HttpMethod.GET ? cacheKey(path, userId, uriVariables) : null;
+        ResponseCache.CachedResponse cached = cacheKey != null ? responseCache.get(cacheKey) : null;
 
-        ResponseEntity<Object> shareitServerResponse;
-        try {
-            if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
-            } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
+        if (rest != null) {
+            HttpHeaders requestHeaders = defaultHeaders(userId);
+            if (headers != null) {
+                requestHeaders.addAll(headers);
             }
-        } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+            if (cached != null) {
+                requestHeaders.setIfNoneMatch(cached.getEtag());
+            }
+            Mono<ResponseEntity<Flux<DataBuffer>>> response = blockingExchange(method, path, uriVariables,
+                    requestHeaders, body);
+            return cacheKey == null
+                    ? response.map(this::prepareGatewayResponse)
+                    : response.flatMap(exchanged -> revalidate(cacheKey, cached, exchanged));
         }
-        return prepareGatewayResponse(shareitServerResponse);
+
+        WebClient.RequestBodySpec request = client.method(method)
+                .uri(path, uriVariables)
+                .headers(requestHeaders -> {
+                    requestHeaders.addAll(defaultHeaders(userId));
+                    if (headers != null) {
+                        requestHeaders.addAll(headers);
+                    }
+                    if (cached != null) {
+                        requestHeaders.setIfNoneMatch(cached.getEtag());
+                    }
+                });
+        WebClient.RequestHeadersSpec<?> shareitServerRequest = body != null ? request.bodyValue(body) : request;
+
+        if (cacheKey == null) {
+            return passThrough(shareitServerRequest);
+        }
+        return exchange(shareitServerRequest)
+                .flatMap(response -> revalidate(cacheKey, cached, response));
+    }
+
+    private String cacheKey(String path, Long userId, Map<String, Object> uriVariables) {
+        return getClass().getSimpleName() + ":" + userId + ":"
+                + UriComponentsBuilder.fromUriString(path).buildAndExpand(uriVariables).toUriString();
     }
 
     private HttpHeaders defaultHeaders(Long userId) {
@@ -106,17 +202,94 @@ public class BaseClient {
         return headers;
     }
 
-    private ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
-        }
+    /**
+     * Ответ сервера передаётся клиенту как есть: статус, заголовки и тело в виде потока буферов,
+     * без разбора JSON. Статусы ошибок не превращаются в исключения, а проксируются так же.
+     */
+    private Mono<ResponseEntity<Flux<DataBuffer>>> passThrough(WebClient.RequestHeadersSpec<?> request) {
+        return exchange(request)
+                .map(this::prepareGatewayResponse);
+    }
+
+    private Mono<ResponseEntity<Flux<DataBuffer>>> exchange(WebClient.RequestHeadersSpec<?> request) {
+        return request.retrieve()
+                .onStatus(HttpStatus::isError, response -> Mono.empty())
+                .toEntityFlux(DataBuffer.class);
+    }
 
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
+    /**
+     * Блокирующий обмен через RestTemplate, вынесенный на boundedElastic, чтобы не занимать поток
+     * обработки запросов. Ответы с ошибкой, как и в неблокирующем режиме, возвращаются клиенту как есть.
+     */
+    private Mono<ResponseEntity<Flux<DataBuffer>>> blockingExchange(HttpMethod method, String path,
+                                                                    Map<String, Object> uriVariables,
+                                                                    HttpHeaders headers, @Nullable Object body) {
+        return Mono.fromCallable(() -> {
+                    ResponseEntity<byte[]> response;
+                    try {
+                        response = rest.exchange(path, method, new HttpEntity<>(body, headers), byte[].class,
+                                uriVariables);
+                    } catch (HttpStatusCodeException e) {
+                        response = ResponseEntity.status(e.getRawStatusCode())
+                                .headers(e.getResponseHeaders())
+                                .body(e.getResponseBodyAsByteArray());
+                    }
+                    byte[] responseBody = response.getBody();
+                    Flux<DataBuffer> buffers = responseBody == null || responseBody.length == 0
+                            ? Flux.empty()
+                            : Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(responseBody));
+                    return ResponseEntity.status(response.getStatusCodeValue())
+                            .headers(response.getHeaders())
+                            .body(buffers);
+                })
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * На 304 отдаёт сохранённый ответ. Успешный ответ с ETag и известной длиной, укладывающейся
+     * в лимит записи, буферизуется и кладётся в кэш; остальные проксируются потоком, а старая
+     * запись по ключу удаляется.
+     */
+    private Mono<ResponseEntity<Flux<DataBuffer>>> revalidate(String cacheKey,
+                                                              @Nullable ResponseCache.CachedResponse cached,
+                                                              ResponseEntity<Flux<DataBuffer>> response) {
+        if (cached != null && response.getStatusCode() == HttpStatus.NOT_MODIFIED) {
+            return response.getBody()
+                    .doOnNext(DataBufferUtils::release)
+                    .then(Mono.fromCallable(cached::toResponseEntity));
+        }
 
-        if (response.hasBody()) {
-            return responseBuilder.body(response.getBody());
+        ResponseEntity<Flux<DataBuffer>> gatewayResponse = prepareGatewayResponse(response);
+        String etag = response.getHeaders().getETag();
+        if (etag == null || !response.getStatusCode().is2xxSuccessful()
+                || !responseCache.fits(response.getHeaders().getContentLength())) {
+            responseCache.evict(cacheKey);
+            return Mono.just(gatewayResponse);
         }
 
-        return responseBuilder.build();
+        return DataBufferUtils.join(response.getBody())
+                .map(buffer -> {
+                    byte[] body = new byte[buffer.readableByteCount()];
+                    buffer.read(body);
+                    DataBufferUtils.release(buffer);
+                    return body;
+                })
+                .defaultIfEmpty(new byte[0])
+                .map(body -> {
+                    ResponseCache.CachedResponse fresh = new ResponseCache.CachedResponse(etag,
+                            response.getStatusCodeValue(), gatewayResponse.getHeaders(), body);
+                    responseCache.put(cacheKey, fresh);
+                    return fresh.toResponseEntity();
+                });
+    }
+
+    private ResponseEntity<Flux<DataBuffer>> prepareGatewayResponse(ResponseEntity<Flux<DataBuffer>> response) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.addAll(response.getHeaders());
+        HOP_BY_HOP_HEADERS.forEach(headers::remove);
+
+        return ResponseEntity.status(response.getStatusCodeValue())
+                .headers(headers)
+                .body(response.getBody());
     }
-}
\ No newline at end of file
+}
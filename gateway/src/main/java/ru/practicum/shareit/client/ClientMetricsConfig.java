@@ -0,0 +1,32 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.boot.actuate.metrics.web.reactive.client.WebClientExchangeTags;
+import org.springframework.boot.actuate.metrics.web.reactive.client.WebClientExchangeTagsProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.regex.Pattern;
+
+/**
+ * Теги таймера http.client.requests для запросов шлюза к серверу. Клиенты собирают путь
+ * конкатенацией, поэтому идентификаторы в нём заменяются на {id}, чтобы тег uri не плодил
+ * отдельную серию на каждую вещь или бронирование.
+ */
+@Configuration
+public class ClientMetricsConfig {
+
+    private static final Pattern ID_SEGMENT = Pattern.compile("/\\d+(?=/|$)");
+
+    @Bean
+    public WebClientExchangeTagsProvider shareitServerExchangeTagsProvider() {
+        return (request, response, throwable) -> Tags.of(
+                WebClientExchangeTags.method(request),
+                Tag.of("uri", ID_SEGMENT.matcher(request.url().getPath()).replaceAll("/{id}")),
+                WebClientExchangeTags.clientName(request),
+                WebClientExchangeTags.status(response, throwable),
+                WebClientExchangeTags.outcome(response)
+        );
+    }
+}
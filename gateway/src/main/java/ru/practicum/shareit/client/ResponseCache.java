@@ -0,0 +1,65 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Flux;
+
+/**
+ * Ограниченный по объёму кэш GET-ответов сервера с ETag. Запись не считается свежей сама по себе:
+ * шлюз всегда перепроверяет её у сервера через If-None-Match и отдаёт из кэша только на ответ 304.
+ */
+@Component
+public class ResponseCache {
+
+    private final Cache<String, CachedResponse> cache;
+    private final long maxEntrySize;
+
+    public ResponseCache(@Value("${shareit-server.response-cache.max-size:32MB}") DataSize maxSize,
+                         @Value("${shareit-server.response-cache.max-entry-size:256KB}") DataSize maxEntrySize) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .<String, CachedResponse>weigher((key, response) -> response.getBody().length)
+                .build();
+        this.maxEntrySize = maxEntrySize.toBytes();
+    }
+
+    public CachedResponse get(String key) {
+        return cache.getIfPresent(key);
+    }
+
+    public boolean fits(long contentLength) {
+        return contentLength >= 0 && contentLength <= maxEntrySize;
+    }
+
+    public void put(String key, CachedResponse response) {
+        cache.put(key, response);
+    }
+
+    public void evict(String key) {
+        cache.invalidate(key);
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class CachedResponse {
+        private final String etag;
+        private final int status;
+        private final HttpHeaders headers;
+        private final byte[] body;
+
+        public ResponseEntity<Flux<DataBuffer>> toResponseEntity() {
+            return ResponseEntity.status(status)
+                    .headers(headers)
+                    .body(Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(body)));
+        }
+    }
+}
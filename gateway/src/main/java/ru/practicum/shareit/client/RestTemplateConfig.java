@@ -0,0 +1,52 @@
+package ru.practicum.shareit.client;
+
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Блокирующий режим шлюза (shareit-server.client=blocking): запросы к серверу идут через RestTemplate
+ * и Apache HttpClient, как до перехода на WebClient. Оставлен для сравнения под нагрузкой:
+ * каждый запрос занимает поток из boundedElastic на всё время обмена с сервером.
+ */
+@Configuration
+@ConditionalOnProperty(name = "shareit-server.client", havingValue = "blocking")
+public class RestTemplateConfig {
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient shareitServerHttpClient(
+            @Value("${shareit-server.pool.max-connections:500}") int maxConnections,
+            @Value("${shareit-server.pool.pending-acquire-timeout:5s}") Duration pendingAcquireTimeout,
+            @Value("${shareit-server.pool.max-idle-time:30s}") Duration maxIdleTime,
+            @Value("${shareit-server.connect-timeout:2s}") Duration connectTimeout,
+            @Value("${shareit-server.response-timeout:10s}") Duration responseTimeout) {
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(maxConnections);
+        connectionManager.setDefaultMaxPerRoute(maxConnections);
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .evictIdleConnections(maxIdleTime.toMillis(), TimeUnit.MILLISECONDS)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout((int) pendingAcquireTimeout.toMillis())
+                        .setConnectTimeout((int) connectTimeout.toMillis())
+                        .setSocketTimeout((int) responseTimeout.toMillis())
+                        .build())
+                .build();
+    }
+
+    @Bean
+    public RestTemplateBuilder shareitServerRestTemplateBuilder(CloseableHttpClient shareitServerHttpClient) {
+        return new RestTemplateBuilder()
+                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(shareitServerHttpClient));
+    }
+}
@@ -2,14 +2,20 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Min;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Size;
+import java.util.List;
 
 @RequiredArgsConstructor
 @Validated
@@ -19,52 +25,61 @@ import javax.validation.constraints.Min;
 public class ItemController {
 
     private static final String REQUEST_HEADER_SHARER_USER_ID = "X-Sharer-User-Id";
+    private static final int MAX_BATCH_SIZE = 1000;
 
     private final ItemClient itemClient;
 
     @PostMapping
-    public ResponseEntity<Object> create(@RequestHeader(REQUEST_HEADER_SHARER_USER_ID) Long userId,
-                                         @Valid @RequestBody ItemDto itemDto) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> create(@RequestHeader(REQUEST_HEADER_SHARER_USER_ID) Long userId,
+                                                         @Valid @RequestBody ItemDto itemDto) {
         log.info("POST запрос на создание новой вещи: {} от пользователя c id: {}", itemDto, userId);
         return itemClient.create(userId, itemDto);
     }
 
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> createAll(@RequestHeader(REQUEST_HEADER_SHARER_USER_ID) Long userId,
+                                                            @RequestBody @NotEmpty @Size(max = MAX_BATCH_SIZE)
+                                                            List<@Valid ItemDto> itemDtos) {
+        log.info("POST запрос на пакетное создание {} вещей от пользователя c id: {}", itemDtos.size(), userId);
+        return itemClient.createAll(userId, itemDtos);
+    }
+
     @PatchMapping("/{itemId}")
-    public ResponseEntity<Object> update(@RequestHeader(REQUEST_HEADER_SHARER_USER_ID) Long userId,
-                                         @RequestBody ItemDto itemDto,
-                                         @PathVariable("itemId") Long itemId) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> update(@RequestHeader(REQUEST_HEADER_SHARER_USER_ID) Long userId,
+                                                         @RequestBody ItemDto itemDto,
+                                                         @PathVariable("itemId") Long itemId) {
         log.info("PATCH запрос на обновление вещи id: {} пользователя c id: {}", itemId, userId);
         return itemClient.update(userId, itemId, itemDto);
     }
 
     @GetMapping("/{itemId}")
-    public ResponseEntity<Object> get(@RequestHeader(REQUEST_HEADER_SHARER_USER_ID) Long userId,
-                                      @PathVariable Long itemId) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> get(@RequestHeader(REQUEST_HEADER_SHARER_USER_ID) Long userId,
+                                                      @PathVariable Long itemId) {
         log.info("GET запрос на получение вещи c id: {}", itemId);
         return itemClient.get(userId, itemId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAll(@RequestHeader(REQUEST_HEADER_SHARER_USER_ID) Long userId,
-                                         @RequestParam(value = "from", defaultValue = "0") @Min(0) Integer from,
-                                         @RequestParam(value = "size", defaultValue = "10") @Min(1) Integer size) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getAll(@RequestHeader(REQUEST_HEADER_SHARER_USER_ID) Long userId,
+                                                         @RequestParam(value = "from", defaultValue = "0") @Min(0) Integer from,
+                                                         @RequestParam(value = "size", defaultValue = "10") @Min(1) Integer size) {
         log.info("GET запрос на получение всех вещей пользователя c id: {}", userId);
         return itemClient.getAll(userId, from, size);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> searchItems(@RequestHeader(REQUEST_HEADER_SHARER_USER_ID) Long userId,
-                                              @RequestParam(name = "text") String text,
-                                              @RequestParam(value = "from", defaultValue = "0") @Min(0) Integer from,
-                                              @RequestParam(value = "size", defaultValue = "10") @Min(1) Integer size) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> searchItems(@RequestHeader(REQUEST_HEADER_SHARER_USER_ID) Long userId,
+                                                              @RequestParam(name = "text") String text,
+                                                              @RequestParam(value = "from", defaultValue = "0") @Min(0) Integer from,
+                                                              @RequestParam(value = "size", defaultValue = "10") @Min(1) Integer size) {
         log.info("GET запрос на поиск всех вещей c текстом: {}", text);
         return itemClient.searchItems(userId, text, from, size);
     }
 
     @PostMapping("/{itemId}/comment")
-    public ResponseEntity<Object> createComment(@RequestHeader(REQUEST_HEADER_SHARER_USER_ID) Long userId,
-                                                @Validated @RequestBody CommentDto commentDto,
-                                                @PathVariable Long itemId) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> createComment(@RequestHeader(REQUEST_HEADER_SHARER_USER_ID) Long userId,
+                                                                @Validated @RequestBody CommentDto commentDto,
+                                                                @PathVariable Long itemId) {
         return itemClient.createComment(userId, commentDto, itemId);
     }
 }
\ No newline at end of file
@@ -2,10 +2,13 @@ package ru.practicum.shareit.request;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
 import javax.validation.Valid;
@@ -24,26 +27,28 @@ public class ItemRequestController {
     private final RequestClient requestClient;
 
     @PostMapping
-    public ResponseEntity<Object> add(@RequestHeader(REQUEST_HEADER_SHARER_USER_ID) Long userId,
-                                      @Valid @RequestBody ItemRequestDto requestDto) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> add(@RequestHeader(REQUEST_HEADER_SHARER_USER_ID) Long userId,
+                                                      @Valid @RequestBody ItemRequestDto requestDto) {
         return requestClient.addNewRequest(userId, requestDto);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getUserRequests(@RequestHeader(REQUEST_HEADER_SHARER_USER_ID) Long userId) {
-        return requestClient.getUserRequests(userId);
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getUserRequests(@RequestHeader(REQUEST_HEADER_SHARER_USER_ID) Long userId,
+                                                                  @RequestParam(name = "from", defaultValue = "0") @Min(0) Integer from,
+                                                                  @RequestParam(value = "size", defaultValue = "10") @Min(1) Integer size) {
+        return requestClient.getUserRequests(userId, from, size);
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Object> getAllRequests(@RequestHeader(REQUEST_HEADER_SHARER_USER_ID) Long userId,
-                                                 @RequestParam(name = "from", defaultValue = "0") @Min(0) Integer from,
-                                                 @RequestParam(value = "size", defaultValue = "10") @Min(1) Integer size) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getAllRequests(@RequestHeader(REQUEST_HEADER_SHARER_USER_ID) Long userId,
+                                                                 @RequestParam(name = "from", defaultValue = "0") @Min(0) Integer from,
+                                                                 @RequestParam(value = "size", defaultValue = "10") @Min(1) Integer size) {
         return requestClient.getAllRequests(userId, from, size);
     }
 
     @GetMapping("/{requestId}")
-    public ResponseEntity<Object> get(@RequestHeader(REQUEST_HEADER_SHARER_USER_ID) Long userId,
-                                      @PathVariable Long requestId) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> get(@RequestHeader(REQUEST_HEADER_SHARER_USER_ID) Long userId,
+                                                      @PathVariable Long requestId) {
         return requestClient.getRequestById(userId, requestId);
     }
 }
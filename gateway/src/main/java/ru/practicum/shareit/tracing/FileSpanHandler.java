@@ -0,0 +1,102 @@
+package ru.practicum.shareit.tracing;
+
+import brave.handler.MutableSpan;
+import brave.handler.SpanHandler;
+import brave.propagation.TraceContext;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Дописывает завершённые спаны в файл, по одному JSON в формате Zipkin v2 на строку.
+ * Позволяет смотреть трассировки локально без внешнего коллектора.
+ * <p>
+ * Поток запроса только кладёт спан в ограниченную очередь; в файл пишет фоновый поток пачками,
+ * со сбросом буфера один раз на пачку. При переполнении очереди спаны отбрасываются.
+ */
+@Slf4j
+public class FileSpanHandler extends SpanHandler implements Closeable {
+
+    private static final int QUEUE_CAPACITY = 10_000;
+
+    private final BlockingQueue<String> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final AtomicLong dropped = new AtomicLong();
+    private final BufferedWriter writer;
+    private final Thread writerThread;
+    private volatile boolean closed;
+
+    public FileSpanHandler(Path path) throws IOException {
+        this.writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        this.writerThread = new Thread(this::writeLoop, "file-span-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    @Override
+    public boolean end(TraceContext context, MutableSpan span, Cause cause) {
+        if (cause == Cause.ABANDONED || closed) {
+            return true;
+        }
+        if (!queue.offer(span.toString())) {
+            dropped.incrementAndGet();
+        }
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        try {
+            writerThread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (dropped.get() > 0) {
+            log.warn("Очередь трассировок переполнялась, отброшено спанов: {}.", dropped.get());
+        }
+        writer.close();
+    }
+
+    private void writeLoop() {
+        List<String> batch = new ArrayList<>();
+        try {
+            while (!closed || !queue.isEmpty()) {
+                String first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch);
+                write(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void write(List<String> spans) {
+        try {
+            for (String span : spans) {
+                writer.write(span);
+                writer.newLine();
+            }
+            writer.flush();
+        } catch (IOException e) {
+            log.warn("Не удалось записать {} спанов в файл трассировок.", spans.size(), e);
+        }
+    }
+}
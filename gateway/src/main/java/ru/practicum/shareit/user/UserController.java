@@ -2,14 +2,20 @@ package ru.practicum.shareit.user;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import javax.validation.Valid;
+import javax.validation.constraints.Min;
 
 @Slf4j
 @RequiredArgsConstructor
+@Validated
 @RestController
 @RequestMapping(path = "/users")
 public class UserController {
@@ -17,31 +23,38 @@ public class UserController {
     private final UserClient userClient;
 
     @PostMapping
-    public ResponseEntity<Object> add(@Valid @RequestBody UserDto user) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> add(@Valid @RequestBody UserDto user) {
         log.info("POST запрос на создание пользователя: {}", user);
         return userClient.create(user);
     }
 
     @PatchMapping("/{userId}")
-    public ResponseEntity<Object> update(@RequestBody UserDto userDto, @PathVariable Long userId) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> update(@RequestBody UserDto userDto, @PathVariable Long userId) {
         log.info("PATCH запрос на обновление пользователя c id: {}", userId);
         return userClient.update(userId, userDto);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAll() {
-        log.info("GET запрос на получение списка всех пользователей.");
-        return userClient.getAll();
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getAll(@RequestParam(name = "from", defaultValue = "0") @Min(0) Integer from,
+                                                         @RequestParam(name = "size", defaultValue = "10") @Min(1) Integer size) {
+        log.info("GET запрос на получение списка пользователей, from: {}, size: {}", from, size);
+        return userClient.getAll(from, size);
+    }
+
+    @GetMapping("/export")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> export() {
+        log.info("GET запрос на выгрузку всех пользователей.");
+        return userClient.export();
     }
 
     @GetMapping("/{userId}")
-    public ResponseEntity<Object> get(@PathVariable Long userId) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> get(@PathVariable Long userId) {
         log.info("GET запрос на получение пользователя c id: {}", userId);
         return userClient.getById(userId);
     }
 
     @DeleteMapping("/{userId}")
-    public ResponseEntity<Object> delete(@PathVariable long userId) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> delete(@PathVariable long userId) {
         log.info("DELETE запрос на удаление пользователя с id: {}", userId);
         return userClient.deleteById(userId);
     }
@@ -0,0 +1,97 @@
+package ru.practicum.shareit.loadtest;
+
+import io.gatling.javaapi.core.ScenarioBuilder;
+import io.gatling.javaapi.core.Simulation;
+import io.gatling.javaapi.http.HttpProtocolBuilder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static io.gatling.javaapi.core.CoreDsl.during;
+import static io.gatling.javaapi.core.CoreDsl.exec;
+import static io.gatling.javaapi.core.CoreDsl.global;
+import static io.gatling.javaapi.core.CoreDsl.rampUsers;
+import static io.gatling.javaapi.core.CoreDsl.scenario;
+import static io.gatling.javaapi.http.HttpDsl.http;
+import static io.gatling.javaapi.http.HttpDsl.status;
+
+/**
+ * Сценарий удержания большого числа одновременных соединений: каждый виртуальный пользователь держит
+ * своё keep-alive соединение и раз в секунду читает одну и ту же вещь. Нужен, чтобы сравнить сервер
+ * на пуле потоков Tomcat и на виртуальных потоках (профиль virtual-threads): при 10 000 соединений
+ * пул из 200 потоков ставит запросы в очередь, а виртуальные потоки упираются только в пул Hikari.
+ * <p>
+ * Параметры: -DbaseUrl (по умолчанию сервер напрямую, http://localhost:9090), -Dconnections — число
+ * соединений, -Dramp — время их открытия в секундах, -Dhold — сколько секунд держать их все открытыми.
+ * Генератору нагрузки нужен лимит открытых файлов выше числа соединений (ulimit -n).
+ */
+public class ConnectionsSimulation extends Simulation {
+
+    private static final String SHARER_USER_ID = "X-Sharer-User-Id";
+    private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+
+    private static final String BASE_URL = System.getProperty("baseUrl", "http://localhost:9090");
+    private static final int CONNECTIONS = Integer.getInteger("connections", 10_000);
+    private static final long RAMP = Long.getLong("ramp", 30);
+    private static final long HOLD = Long.getLong("hold", 60);
+
+    private static long ownerId;
+    private static long itemId;
+
+    private final HttpProtocolBuilder httpProtocol = http
+            .baseUrl(BASE_URL)
+            .acceptHeader("application/json");
+
+    private final ScenarioBuilder connections = scenario("Connections")
+            .exec(during(Duration.ofSeconds(RAMP + HOLD)).on(exec(
+                    http("GET /items/{id}")
+                            .get(session -> "/items/" + itemId)
+                            .header(SHARER_USER_ID, session -> String.valueOf(ownerId))
+                            .check(status().is(200)))
+                    .pause(Duration.ofSeconds(1))));
+
+    {
+        before(() -> {
+            // Одна вещь на всех: сценарий измеряет удержание соединений, а не запись.
+            long run = System.currentTimeMillis();
+            ownerId = create("/users", null,
+                    "{\"name\":\"owner" + run + "\",\"email\":\"owner" + run + "@connections.test\"}");
+            itemId = create("/items", ownerId,
+                    "{\"name\":\"Дрель\",\"description\":\"Аккумуляторная дрель\",\"available\":true}");
+        });
+
+        setUp(connections.injectOpen(rampUsers(CONNECTIONS).during(Duration.ofSeconds(RAMP))))
+                .protocols(httpProtocol)
+                .assertions(global().failedRequests().percent().lt(1.0));
+    }
+
+    private static long create(String path, Long userId, String body) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(BASE_URL + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+        if (userId != null) {
+            request.header(SHARER_USER_ID, String.valueOf(userId));
+        }
+        try {
+            HttpResponse<String> response = HttpClient.newHttpClient()
+                    .send(request.build(), HttpResponse.BodyHandlers.ofString());
+            Matcher matcher = ID.matcher(response.body());
+            if (response.statusCode() != 200 || !matcher.find()) {
+                throw new IllegalStateException(String.format("POST %s вернул %d: %s",
+                        path, response.statusCode(), response.body()));
+            }
+            return Long.parseLong(matcher.group(1));
+        } catch (IOException e) {
+            throw new IllegalStateException("Не удалось подготовить данные для сценария", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Подготовка данных прервана", e);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package ru.practicum.shareit.loadtest;
+
+import io.gatling.javaapi.core.ChainBuilder;
+import io.gatling.javaapi.core.ScenarioBuilder;
+import io.gatling.javaapi.core.Simulation;
+import io.gatling.javaapi.http.HttpProtocolBuilder;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import static io.gatling.javaapi.core.CoreDsl.StringBody;
+import static io.gatling.javaapi.core.CoreDsl.constantUsersPerSec;
+import static io.gatling.javaapi.core.CoreDsl.exec;
+import static io.gatling.javaapi.core.CoreDsl.global;
+import static io.gatling.javaapi.core.CoreDsl.jsonPath;
+import static io.gatling.javaapi.core.CoreDsl.rampUsersPerSec;
+import static io.gatling.javaapi.core.CoreDsl.repeat;
+import static io.gatling.javaapi.core.CoreDsl.scenario;
+import static io.gatling.javaapi.http.HttpDsl.http;
+import static io.gatling.javaapi.http.HttpDsl.status;
+
+/**
+ * Нагрузочный сценарий через шлюз, повторяющий путь из коллекции Postman: владелец и арендатор
+ * регистрируются, владелец добавляет вещь, арендатор ищет и бронирует её, владелец подтверждает
+ * бронирование и просматривает свои бронирования и вещь. Каждый шаг назван по эндпоинту, поэтому
+ * в отчёте Gatling задержки (p50/p95/p99) и RPS видны отдельно для каждого из них.
+ * <p>
+ * Параметры: -DbaseUrl (по умолчанию http://localhost:8080), -Dusers — новых пользователей в секунду
+ * после разгона, -Dduration — длительность полки в секундах, -DreadRepeats — число циклов чтения.
+ */
+public class ShareItSimulation extends Simulation {
+
+    private static final String SHARER_USER_ID = "X-Sharer-User-Id";
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+    // Все варианты находят вещи, которые создаёт сценарий: "Дрель N" / "Аккумуляторная дрель N".
+    private static final String[] SEARCH_TEXTS = {"дрель", "аккумуляторная", "Дрель", "аккум"};
+
+    private static final String BASE_URL = System.getProperty("baseUrl", "http://localhost:8080");
+    private static final double USERS_PER_SEC = Double.parseDouble(System.getProperty("users", "10"));
+    private static final long DURATION = Long.getLong("duration", 60);
+    private static final int READ_REPEATS = Integer.getInteger("readRepeats", 5);
+
+    // Префикс прогона: почта уникальна, и повторный запуск против той же базы не получает 409.
+    private static final long RUN_ID = System.currentTimeMillis();
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    private final Iterator<Map<String, Object>> participants = Stream.generate(() -> {
+        long id = SEQUENCE.incrementAndGet();
+        // Вещь у каждого виртуального пользователя своя, поэтому периоды бронирования не пересекаются.
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        return Map.<String, Object>of(
+                "n", id,
+                "run", RUN_ID,
+                "searchText", SEARCH_TEXTS[(int) (id % SEARCH_TEXTS.length)],
+                "start", start.format(DATE_TIME),
+                "end", start.plusDays(2).format(DATE_TIME)
+        );
+    }).iterator();
+
+    private final HttpProtocolBuilder httpProtocol = http
+            .baseUrl(BASE_URL)
+            .acceptHeader("application/json")
+            .contentTypeHeader("application/json");
+
+    private final ChainBuilder createUsers = exec(
+            http("POST /users")
+                    .post("/users")
+                    .body(StringBody("{\"name\":\"owner#{n}\",\"email\":\"owner#{run}-#{n}@load.test\"}"))
+                    .check(status().is(200), jsonPath("$.id").saveAs("ownerId")),
+            http("POST /users")
+                    .post("/users")
+                    .body(StringBody("{\"name\":\"booker#{n}\",\"email\":\"booker#{run}-#{n}@load.test\"}"))
+                    .check(status().is(200), jsonPath("$.id").saveAs("bookerId"))
+    );
+
+    private final ChainBuilder createItem = exec(
+            http("POST /items")
+                    .post("/items")
+                    .header(SHARER_USER_ID, "#{ownerId}")
+                    .body(StringBody("{\"name\":\"Дрель #{n}\","
+                            + "\"description\":\"Аккумуляторная дрель #{n}\",\"available\":true}"))
+                    .check(status().is(200), jsonPath("$.id").saveAs("itemId"))
+    );
+
+    private final ChainBuilder search = exec(
+            http("GET /items/search")
+                    .get("/items/search")
+                    .header(SHARER_USER_ID, "#{bookerId}")
+                    .queryParam("text", "#{searchText}")
+                    .queryParam("from", 0)
+                    .queryParam("size", 20)
+                    .check(status().is(200))
+    );
+
+    private final ChainBuilder book = exec(
+            http("POST /bookings")
+                    .post("/bookings")
+                    .header(SHARER_USER_ID, "#{bookerId}")
+                    .body(StringBody("{\"itemId\":#{itemId},\"start\":\"#{start}\",\"end\":\"#{end}\"}"))
+                    .check(status().is(200), jsonPath("$.id").saveAs("bookingId")),
+            http("PATCH /bookings/{id}")
+                    .patch("/bookings/#{bookingId}")
+                    .header(SHARER_USER_ID, "#{ownerId}")
+                    .queryParam("approved", true)
+                    .check(status().is(200))
+    );
+
+    private final ChainBuilder ownerReads = exec(
+            http("GET /bookings/owner")
+                    .get("/bookings/owner")
+                    .header(SHARER_USER_ID, "#{ownerId}")
+                    .queryParam("state", "ALL")
+                    .check(status().is(200)),
+            http("GET /items/{id}")
+                    .get("/items/#{itemId}")
+                    .header(SHARER_USER_ID, "#{ownerId}")
+                    .check(status().is(200))
+    );
+
+    private final ScenarioBuilder shareIt = scenario("ShareIt")
+            .feed(participants)
+            .exec(createUsers, createItem, search, book)
+            .exec(repeat(READ_REPEATS).on(exec(search, ownerReads)));
+
+    {
+        setUp(shareIt.injectOpen(
+                rampUsersPerSec(1).to(USERS_PER_SEC).during(Duration.ofSeconds(30)),
+                constantUsersPerSec(USERS_PER_SEC).during(Duration.ofSeconds(DURATION))
+        ))
+                .protocols(httpProtocol)
+                .assertions(global().failedRequests().percent().lt(1.0));
+    }
+}
@@ -2,11 +2,15 @@ package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoOut;
+import ru.practicum.shareit.booking.model.BookingCursor;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.service.BookingService;
 
@@ -21,6 +25,8 @@ import java.util.Objects;
 public class BookingController {
 
     private static final String XSHARERUSERID = "X-SHARE-USER-Id";
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
     private final BookingService bookingService;
 
     @PostMapping
@@ -34,9 +40,20 @@ public class BookingController {
     public ResponseEntity<BookingDtoOut> updateStatus(@RequestHeader(XSHARERUSERID) Long userId,
                                                       @PathVariable("bookingId")
                                                       Long bookingId,
-                                                      @RequestParam(name = "approved") Boolean approved) {
+                                                      @RequestParam(name = "approved") Boolean approved,
+                                                      @RequestHeader(name = IDEMPOTENCY_KEY_HEADER, required = false)
+                                                      String idempotencyKey) {
         log.info("PATCH запрос на обновление статуса бронирования вещи : {} от владельца с id: {}", bookingId, userId);
-        return ResponseEntity.ok(bookingService.update(userId, bookingId, approved));
+        return ResponseEntity.ok(bookingService.update(userId, bookingId, approved, idempotencyKey));
+    }
+
+    @PatchMapping("/batch")
+    public ResponseEntity<List<BookingDecisionResultDto>> updateStatuses(@RequestHeader(XSHARERUSERID) Long userId,
+                                                                         @RequestBody
+                                                                         List<BookingDecisionDto> decisions) {
+        log.info("PATCH запрос на пакетное обновление статусов {} бронирований от владельца с id: {}",
+                decisions.size(), userId);
+        return ResponseEntity.ok(bookingService.updateAll(userId, decisions));
     }
 
     @GetMapping("/{bookingId}")
@@ -51,10 +68,13 @@ public class BookingController {
     public ResponseEntity<List<BookingDtoOut>> getAll(@RequestHeader(XSHARERUSERID) Long userId,
                                                       @RequestParam(value = "state", defaultValue = "ALL") String bookingState,
                                                       @RequestParam(value = "from", defaultValue = "0") Integer from,
-                                                      @RequestParam(value = "size", defaultValue = "10") Integer size) {
+                                                      @RequestParam(value = "size", defaultValue = "10") Integer size,
+                                                      @RequestParam(value = "cursor", required = false) String cursor) {
         log.info("GET запрос на получение списка всех бронирований текущего пользователя с id: {} и статусом {}",
                 userId, bookingState);
         validState(bookingState);
+        if (cursor != null)
+            return toCursorResponse(bookingService.getAllByCursor(userId, bookingState, cursor, size));
         return ResponseEntity.ok(bookingService.getAll(userId, bookingState, from, size));
     }
 
@@ -62,12 +82,28 @@ public class BookingController {
     public ResponseEntity<List<BookingDtoOut>> getAllOwner(@RequestHeader(XSHARERUSERID) Long ownerId,
                                                            @RequestParam(value = "state", defaultValue = "ALL") String bookingState,
                                                            @RequestParam(value = "from", defaultValue = "0") Integer from,
-                                                           @RequestParam(value = "size", defaultValue = "10") Integer size) {
+                                                           @RequestParam(value = "size", defaultValue = "10") Integer size,
+                                                           @RequestParam(value = "cursor", required = false) String cursor) {
         log.info("GET запрос на получение списка всех бронирований текущего владельца с id: {} и статусом {}", ownerId, bookingState);
         validState(bookingState);
+        if (cursor != null)
+            return toCursorResponse(bookingService.getAllOwnerByCursor(ownerId, bookingState, cursor, size));
         return ResponseEntity.ok(bookingService.getAllOwner(ownerId, bookingState, from, size));
     }
 
+    /**
+     * Курсорный режим: пустой cursor запрашивает первую страницу,
+     * курсор следующей страницы возвращается в заголовке X-Next-Cursor.
+     */
+    private ResponseEntity<List<BookingDtoOut>> toCursorResponse(Slice<BookingDtoOut> bookings) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (bookings.hasNext()) {
+            BookingDtoOut last = bookings.getContent().get(bookings.getNumberOfElements() - 1);
+            response.header(NEXT_CURSOR_HEADER, new BookingCursor(last.getStart(), last.getId()).encode());
+        }
+        return response.body(bookings.getContent());
+    }
+
     private void validState(String bookingState) {
         BookingState state = BookingState.from(bookingState);
         if (Objects.isNull(state)) {
@@ -6,8 +6,8 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
 import ru.practicum.shareit.booking.model.BookingStatus;
-import ru.practicum.shareit.item.model.Item;
-import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.item.dto.ItemShortDto;
+import ru.practicum.shareit.user.dto.UserDto;
 
 import javax.validation.constraints.Future;
 import javax.validation.constraints.FutureOrPresent;
@@ -20,7 +20,7 @@ import java.time.LocalDateTime;
 @Builder
 public class BookingDtoOut {
     private Long id;
-    private Item item;
+    private ItemShortDto item;
     @NotNull
     @FutureOrPresent
     @DateTimeFormat(pattern = "yyyy-MM-ddTHH:mm:ss")
@@ -29,7 +29,20 @@ public class BookingDtoOut {
     @Future
     @DateTimeFormat(pattern = "yyyy-MM-ddTHH:mm:ss")
     private LocalDateTime end;
-    private User booker;
+    private UserDto booker;
     private BookingStatus status;
-}
 
+    /**
+     * Конструктор для проекций: бронирование, вещь и арендатор выбираются одним запросом.
+     */
+    public BookingDtoOut(Long id, LocalDateTime start, LocalDateTime end, BookingStatus status,
+                         Long itemId, String itemName, String itemDescription, Boolean itemAvailable,
+                         Long bookerId, String bookerName, String bookerEmail) {
+        this(id,
+                new ItemShortDto(itemId, itemName, itemDescription, itemAvailable),
+                start,
+                end,
+                new UserDto(bookerId, bookerName, bookerEmail),
+                status);
+    }
+}
@@ -0,0 +1,44 @@
+package ru.practicum.shareit.booking.repository;
+
+import lombok.Builder;
+import lombok.Data;
+import ru.practicum.shareit.booking.model.BookingState;
+
+import java.time.LocalDateTime;
+
+/**
+ * Параметры выборки бронирований для {@link BookingRepositoryCustom}.
+ * Необязательные поля со значением null в условие не попадают.
+ */
+@Data
+@Builder
+public class BookingFilter {
+
+    public enum Role {
+        BOOKER, OWNER
+    }
+
+    private final Long userId;
+    private final Role role;
+    private final BookingState state;
+    private final LocalDateTime currentTime;
+    private final Long itemId;
+    private final LocalDateTime startFrom;
+    private final LocalDateTime endTo;
+
+    public static BookingFilter of(Long userId, Role role, BookingState state) {
+        return BookingFilter.builder()
+                .userId(userId)
+                .role(role)
+                .state(state)
+                .currentTime(LocalDateTime.now())
+                .build();
+    }
+
+    /**
+     * Текущие бронирования арендатора выводятся по возрастанию даты начала, остальные списки — по убыванию.
+     */
+    public boolean isAscending() {
+        return role == Role.BOOKER && state == BookingState.CURRENT;
+    }
+}
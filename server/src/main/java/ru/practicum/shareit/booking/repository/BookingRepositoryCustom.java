@@ -0,0 +1,22 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import ru.practicum.shareit.booking.dto.BookingDtoOut;
+import ru.practicum.shareit.booking.model.BookingCursor;
+
+public interface BookingRepositoryCustom {
+
+    /**
+     * Выборка бронирований по фильтру с постраничным выводом через OFFSET, без запроса количества.
+     * Бронирования, вещи и арендаторы читаются одним запросом сразу в {@link BookingDtoOut}.
+     */
+    Slice<BookingDtoOut> findAll(BookingFilter filter, Pageable pageable);
+
+    /**
+     * Постраничная выборка бронирований по ключу (start_date, id) без OFFSET и без запроса количества.
+     *
+     * @param cursor позиция последнего полученного бронирования, null для первой страницы
+     */
+    Slice<BookingDtoOut> findAllByCursor(BookingFilter filter, BookingCursor cursor, int size);
+}
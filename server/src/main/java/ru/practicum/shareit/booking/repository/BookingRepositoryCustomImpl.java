@@ -0,0 +1,108 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import ru.practicum.shareit.booking.dto.BookingDtoOut;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingCursor;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public class BookingRepositoryCustomImpl implements BookingRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Slice<BookingDtoOut> findAll(BookingFilter filter, Pageable pageable) {
+        TypedQuery<BookingDtoOut> query = entityManager.createQuery(buildQuery(filter, null))
+                .setFirstResult((int) pageable.getOffset());
+        return toSlice(query, pageable);
+    }
+
+    @Override
+    public Slice<BookingDtoOut> findAllByCursor(BookingFilter filter, BookingCursor cursor, int size) {
+        return toSlice(entityManager.createQuery(buildQuery(filter, cursor)), PageRequest.of(0, size));
+    }
+
+    private Slice<BookingDtoOut> toSlice(TypedQuery<BookingDtoOut> query, Pageable pageable) {
+        int size = pageable.getPageSize();
+        List<BookingDtoOut> bookings = query.setMaxResults(size + 1).getResultList();
+        boolean hasNext = bookings.size() > size;
+        return new SliceImpl<>(hasNext ? bookings.subList(0, size) : bookings, pageable, hasNext);
+    }
+
+    private CriteriaQuery<BookingDtoOut> buildQuery(BookingFilter filter, BookingCursor cursor) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BookingDtoOut> query = cb.createQuery(BookingDtoOut.class);
+        Root<Booking> booking = query.from(Booking.class);
+        Join<Booking, Item> item = booking.join("item");
+        Join<Booking, User> booker = booking.join("booker");
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(filter.getRole() == BookingFilter.Role.OWNER
+                ? cb.equal(item.get("owner").get("id"), filter.getUserId())
+                : cb.equal(booker.get("id"), filter.getUserId()));
+        predicates.addAll(statePredicates(cb, booking, filter));
+        if (filter.getItemId() != null)
+            predicates.add(cb.equal(item.get("id"), filter.getItemId()));
+        if (filter.getStartFrom() != null)
+            predicates.add(cb.greaterThanOrEqualTo(booking.get("start"), filter.getStartFrom()));
+        if (filter.getEndTo() != null)
+            predicates.add(cb.lessThanOrEqualTo(booking.get("end"), filter.getEndTo()));
+        if (cursor != null)
+            predicates.add(afterCursor(cb, booking, cursor, filter.isAscending()));
+
+        return query.select(cb.construct(BookingDtoOut.class,
+                        booking.get("id"), booking.get("start"), booking.get("end"), booking.get("status"),
+                        item.get("id"), item.get("name"), item.get("description"), item.get("available"),
+                        booker.get("id"), booker.get("name"), booker.get("email")))
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(filter.isAscending()
+                        ? List.of(cb.asc(booking.get("start")), cb.asc(booking.get("id")))
+                        : List.of(cb.desc(booking.get("start")), cb.desc(booking.get("id"))));
+    }
+
+    private List<Predicate> statePredicates(CriteriaBuilder cb, Root<Booking> booking, BookingFilter filter) {
+        Path<LocalDateTime> start = booking.get("start");
+        Path<LocalDateTime> end = booking.get("end");
+        LocalDateTime currentTime = filter.getCurrentTime();
+        switch (filter.getState()) {
+            case CURRENT:
+                return List.of(cb.lessThanOrEqualTo(start, currentTime), cb.greaterThanOrEqualTo(end, currentTime));
+            case PAST:
+                return List.of(cb.lessThan(end, currentTime));
+            case FUTURE:
+                return List.of(cb.greaterThan(start, currentTime));
+            case WAITING:
+                return List.of(cb.equal(booking.get("status"), BookingStatus.WAITING),
+                        cb.greaterThan(start, currentTime));
+            case REJECTED:
+                return List.of(cb.equal(booking.get("status"), BookingStatus.REJECTED));
+            default:
+                return List.of();
+        }
+    }
+
+    private Predicate afterCursor(CriteriaBuilder cb, Root<Booking> booking, BookingCursor cursor, boolean ascending) {
+        Path<LocalDateTime> start = booking.get("start");
+        Path<Long> id = booking.get("id");
+        if (ascending) {
+            return cb.or(cb.greaterThan(start, cursor.getStart()),
+                    cb.and(cb.equal(start, cursor.getStart()), cb.greaterThan(id, cursor.getId())));
+        }
+        return cb.or(cb.lessThan(start, cursor.getStart()),
+                cb.and(cb.equal(start, cursor.getStart()), cb.lessThan(id, cursor.getId())));
+    }
+}
@@ -1,6 +1,9 @@
 package ru.practicum.shareit.booking.service;
 
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import org.springframework.data.domain.Slice;
 import ru.practicum.shareit.booking.dto.BookingDtoOut;
 
 import java.util.List;
@@ -8,11 +11,17 @@ import java.util.List;
 public interface BookingService {
     BookingDtoOut add(Long userId, BookingDto bookingDto);
 
-    BookingDtoOut update(Long userId, Long bookingId, Boolean approved);
+    BookingDtoOut update(Long userId, Long bookingId, Boolean approved, String idempotencyKey);
+
+    List<BookingDecisionResultDto> updateAll(Long ownerId, List<BookingDecisionDto> decisions);
 
     BookingDtoOut getBookingById(Long userId, Long bookingId);
 
     List<BookingDtoOut> getAll(Long userId, String state, Integer from, Integer size);
 
     List<BookingDtoOut> getAllOwner(Long userId, String state, Integer from, Integer size);
+
+    Slice<BookingDtoOut> getAllByCursor(Long userId, String state, String cursor, Integer size);
+
+    Slice<BookingDtoOut> getAllOwnerByCursor(Long userId, String state, String cursor, Integer size);
 }
@@ -1,67 +1,130 @@
 package ru.practicum.shareit.booking.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.BookingMapper;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoOut;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingCursor;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingFilter;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exceptions.ConflictException;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.exceptions.ValidationException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.user.UserMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class BookingServiceImpl implements BookingService {
+    private static final String BOOKING_OVERLAP_CONSTRAINT = "bookings_item_period_excl";
+    private static final String EXCLUSION_VIOLATION_SQL_STATE = "23P01";
+
     private final BookingRepository bookingRepository;
     private final UserService userService;
     private final ItemRepository itemRepository;
+    private final ItemService itemService;
 
     @Override
     @Transactional
+    @Timed(value = "shareit.service", histogram = true)
     public BookingDtoOut add(Long userId, BookingDto bookingDto) {
         User user = UserMapper.toUser(userService.getUserById(userId));
-        Optional<Item> itemById = itemRepository.findById(bookingDto.getItemId());
-        itemById.orElseThrow(() -> new NotFoundException(String.format("Вещь с id %s не найдена.",
-                bookingDto.getItemId())));
-        log.error("Вещь с id {} не найдена.", bookingDto.getItemId());
-        Item item = itemById.get();
+        Item item = itemRepository.findById(bookingDto.getItemId()).orElseThrow(() -> {
+            log.warn("Вещь с id {} не найдена.", bookingDto.getItemId());
+            return new NotFoundException(String.format("Вещь с id %s не найдена.", bookingDto.getItemId()));
+        });
         bookingValidation(bookingDto, user, item);
         Booking booking = BookingMapper.toBooking(user, item, bookingDto);
-        return BookingMapper.toBookingOut(bookingRepository.save(booking));
+        itemService.evictItemDetails(item.getId());
+        try {
+            return BookingMapper.toBookingOut(bookingRepository.saveAndFlush(booking));
+        } catch (DataIntegrityViolationException e) {
+            if (!isBookingOverlap(e))
+                throw e;
+            throw new ConflictException(String.format("Вещь с id %s уже забронирована на указанный период.",
+                    item.getId()));
+        }
     }
 
     @Override
     @Transactional
-    public BookingDtoOut update(Long userId, Long bookingId, Boolean approved) {
+    @Timed(value = "shareit.service", histogram = true)
+    public BookingDtoOut update(Long userId, Long bookingId, Boolean approved, String idempotencyKey) {
+        BookingStatus status = approved ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+        boolean updated = bookingRepository.updateStatusIfWaiting(bookingId, userId, status, idempotencyKey) == 1;
         Booking booking = validateBookingDetails(userId, bookingId, 1);
-        assert booking != null;
-        if (approved)
-            booking.setStatus(BookingStatus.APPROVED);
-        else
-            booking.setStatus(BookingStatus.REJECTED);
-        return BookingMapper.toBookingOut(bookingRepository.save(booking));
+        if (updated)
+            itemService.evictItemDetails(booking.getItem().getId());
+        if (!updated && !isReplay(booking, status, idempotencyKey)) {
+            log.warn("В брони уже изменили статус");
+            throw new ValidationException(String.format("Бронь c id %s уже изменил статус",
+                    booking.getId()));
+        }
+        return BookingMapper.toBookingOut(booking);
+    }
+
+    @Override
+    @Transactional
+    @Timed(value = "shareit.service", histogram = true)
+    public List<BookingDecisionResultDto> updateAll(Long ownerId, List<BookingDecisionDto> decisions) {
+        userService.checkUserExists(ownerId);
+        Set<Long> bookingIds = decisions.stream()
+                .map(BookingDecisionDto::getBookingId)
+                .collect(Collectors.toSet());
+        Map<Long, Booking> bookings = bookingRepository.findAllByIdInAndOwnerId(bookingIds, ownerId).stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+
+        List<BookingDecisionResultDto> results = new ArrayList<>(decisions.size());
+        for (BookingDecisionDto decision : decisions) {
+            Booking booking = bookings.get(decision.getBookingId());
+            BookingDecisionResultDto.BookingDecisionResultDtoBuilder result = BookingDecisionResultDto.builder()
+                    .bookingId(decision.getBookingId());
+            if (booking == null) {
+                result.error(String.format("Бронь с id %s не найдена.", decision.getBookingId()));
+            } else if (booking.getStatus() != BookingStatus.WAITING) {
+                result.status(booking.getStatus())
+                        .error(String.format("Бронь c id %s уже изменил статус", booking.getId()));
+            } else {
+                booking.setStatus(decision.getApproved() ? BookingStatus.APPROVED : BookingStatus.REJECTED);
+                itemService.evictItemDetails(booking.getItem().getId());
+                result.status(booking.getStatus());
+            }
+            results.add(result.build());
+        }
+        bookingRepository.flush();
+        return results;
     }
 
     @Override
     @Transactional(readOnly = true)
+    @Timed(value = "shareit.service", histogram = true)
     public BookingDtoOut getBookingById(Long userId, Long bookingId) {
         Booking booking = validateBookingDetails(userId, bookingId, 2);
         assert booking != null;
@@ -70,91 +133,49 @@ public class BookingServiceImpl implements BookingService {
 
     @Override
     @Transactional(readOnly = true)
+    @Timed(value = "shareit.service", histogram = true)
     public List<BookingDtoOut> getAll(Long bookerId, String state, Integer from, Integer size) {
-        Pageable pageable = PageRequest.of(from / size, size);
-        userService.getUserById(bookerId);
-        switch (BookingState.valueOf(state)) {
-            case ALL:
-                return bookingRepository.findAllByBookerId(bookerId, pageable).getContent().stream()
-                        .map(BookingMapper::toBookingOut)
-                        .collect(Collectors.toList());
-            case CURRENT:
-                return bookingRepository.findAllCurrentBookingsByBookerId(bookerId, LocalDateTime.now(), pageable)
-                        .getContent().stream()
-                        .map(BookingMapper::toBookingOut)
-                        .collect(Collectors.toList());
-
-            case PAST:
-                return bookingRepository.findAllPastBookingsByBookerId(bookerId, LocalDateTime.now(), pageable)
-                        .getContent().stream()
-                        .map(BookingMapper::toBookingOut)
-                        .collect(Collectors.toList());
-
-            case FUTURE:
-                return bookingRepository.findAllFutureBookingsByBookerId(bookerId, LocalDateTime.now(), pageable)
-                        .getContent().stream()
-                        .map(BookingMapper::toBookingOut)
-                        .collect(Collectors.toList());
-
-            case WAITING:
-                return bookingRepository.findAllWaitingBookingsByBookerId(bookerId, LocalDateTime.now(), pageable)
-                        .getContent().stream()
-                        .map(BookingMapper::toBookingOut)
-                        .collect(Collectors.toList());
-
-            case REJECTED:
-                return bookingRepository.findAllRejectedBookingsByBookerId(bookerId, pageable)
-                        .getContent().stream()
-                        .map(BookingMapper::toBookingOut)
-                        .collect(Collectors.toList());
-            default:
-                throw new IllegalArgumentException("Unknown state: UNSUPPORTED_STATUS");
-        }
+        userService.checkUserExists(bookerId);
+        return findAll(BookingFilter.of(bookerId, BookingFilter.Role.BOOKER, BookingState.valueOf(state)), from, size);
     }
 
     @Override
     @Transactional(readOnly = true)
+    @Timed(value = "shareit.service", histogram = true)
     public List<BookingDtoOut> getAllOwner(Long ownerId, String state, Integer from, Integer size) {
+        userService.checkUserExists(ownerId);
+        return findAll(BookingFilter.of(ownerId, BookingFilter.Role.OWNER, BookingState.valueOf(state)), from, size);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @Timed(value = "shareit.service", histogram = true)
+    public Slice<BookingDtoOut> getAllByCursor(Long bookerId, String state, String cursor, Integer size) {
+        userService.checkUserExists(bookerId);
+        return bookingRepository.findAllByCursor(
+                BookingFilter.of(bookerId, BookingFilter.Role.BOOKER, BookingState.valueOf(state)),
+                decodeCursor(cursor), size);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @Timed(value = "shareit.service", histogram = true)
+    public Slice<BookingDtoOut> getAllOwnerByCursor(Long ownerId, String state, String cursor, Integer size) {
+        userService.checkUserExists(ownerId);
+        return bookingRepository.findAllByCursor(
+                BookingFilter.of(ownerId, BookingFilter.Role.OWNER, BookingState.valueOf(state)),
+                decodeCursor(cursor), size);
+    }
+
+    private List<BookingDtoOut> findAll(BookingFilter filter, Integer from, Integer size) {
         Pageable pageable = PageRequest.of(from / size, size);
-        userService.getUserById(ownerId);
-        switch (BookingState.valueOf(state)) {
-            case ALL:
-                return bookingRepository.findAllByOwnerId(ownerId, pageable)
-                        .getContent().stream()
-                        .map(BookingMapper::toBookingOut)
-                        .collect(Collectors.toList());
-            case CURRENT:
-                return bookingRepository.findAllCurrentBookingsByOwnerId(ownerId, LocalDateTime.now(), pageable)
-                        .getContent().stream()
-                        .map(BookingMapper::toBookingOut)
-                        .collect(Collectors.toList());
-
-            case PAST:
-                return bookingRepository.findAllPastBookingsByOwnerId(ownerId, LocalDateTime.now(), pageable)
-                        .getContent().stream()
-                        .map(BookingMapper::toBookingOut)
-                        .collect(Collectors.toList());
-
-            case FUTURE:
-                return bookingRepository.findAllFutureBookingsByOwnerId(ownerId, LocalDateTime.now(), pageable)
-                        .getContent().stream()
-                        .map(BookingMapper::toBookingOut)
-                        .collect(Collectors.toList());
-
-            case WAITING:
-                return bookingRepository.findAllWaitingBookingsByOwnerId(ownerId, LocalDateTime.now(), pageable)
-                        .getContent().stream()
-                        .map(BookingMapper::toBookingOut)
-                        .collect(Collectors.toList());
-
-            case REJECTED:
-                return bookingRepository.findAllRejectedBookingsByOwnerId(ownerId, pageable)
-                        .getContent().stream()
-                        .map(BookingMapper::toBookingOut)
-                        .collect(Collectors.toList());
-            default:
-                throw new IllegalArgumentException("Unknown state: UNSUPPORTED_STATUS");
-        }
+        return bookingRepository.findAll(filter, pageable).getContent();
+    }
+
+    private BookingCursor decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank())
+            return null;
+        return BookingCursor.decode(cursor);
     }
 
     private void bookingValidation(BookingDto bookingDto, User user, Item item) {
@@ -187,24 +208,28 @@ public class BookingServiceImpl implements BookingService {
         }
     }
 
+    /**
+     * Повтор уже принятого решения: тот же ключ идемпотентности, что был сохранён вместе со статусом,
+     * и тот же запрошенный статус.
+     */
+    private boolean isReplay(Booking booking, BookingStatus status, String idempotencyKey) {
+        return idempotencyKey != null
+                && idempotencyKey.equals(booking.getDecisionKey())
+                && booking.getStatus() == status;
+    }
+
     private Booking validateBookingDetails(Long userId, Long bookingId, Integer number) {
-        Optional<Booking> bookingById = bookingRepository.findById(bookingId);
-        bookingById.orElseThrow(() -> new NotFoundException(String.format("Бронь с id %s не найдена.", bookingId)));
-        log.error("Бронь с id {} не найдена.", bookingId);
+        Booking booking = bookingRepository.findById(bookingId).orElseThrow(() -> {
+            log.warn("Бронь с id {} не найдена.", bookingId);
+            return new NotFoundException(String.format("Бронь с id %s не найдена.", bookingId));
+        });
 
-        Booking booking = bookingById.get();
         switch (number) {
             case 1:
                 if (!booking.getItem().getOwner().getId().equals(userId)) {
                     log.warn("Пользователь не является владельцем вещи");
                     throw new NotFoundException(String.format("Пользователь с id %s не является владельцем", userId));
                 }
-                if (!booking.getStatus().equals(BookingStatus.WAITING)) {
-                    log.warn("В брони уже изменили статус");
-                    throw new ValidationException(String.format("Бронь c id %s уже изменил статус",
-                            booking.getId()));
-
-                }
                 return booking;
             case 2:
                 if (!booking.getBooker().getId().equals(userId)
@@ -217,4 +242,16 @@ public class BookingServiceImpl implements BookingService {
         }
         return null;
     }
+
+    /**
+     * Нарушено ли исключающее ограничение на пересечение бронирований одной вещи (см. миграцию V5).
+     * Прочие нарушения целостности (внешние ключи, NOT NULL) конфликтом периода не являются.
+     */
+    private static boolean isBookingOverlap(DataIntegrityViolationException e) {
+        if (!(e.getCause() instanceof ConstraintViolationException))
+            return false;
+        ConstraintViolationException cause = (ConstraintViolationException) e.getCause();
+        return EXCLUSION_VIOLATION_SQL_STATE.equals(cause.getSQLState())
+                || BOOKING_OVERLAP_CONSTRAINT.equals(cause.getConstraintName());
+    }
 }
@@ -5,6 +5,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.service.ItemService;
@@ -29,6 +30,13 @@ public class ItemController {
         return ResponseEntity.ok(itemService.create(userId, itemDto));
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<List<ItemDto>> createAll(@RequestHeader(XSHARERUSERID) Long userId,
+                                                   @RequestBody List<ItemDto> itemDtos) {
+        log.info("POST запрос на пакетное создание {} вещей от пользователя c id: {}", itemDtos.size(), userId);
+        return ResponseEntity.ok(itemService.createAll(userId, itemDtos));
+    }
+
     @PatchMapping("/{itemId}")
     public ResponseEntity<ItemDto> update(@RequestHeader(XSHARERUSERID) Long userId,
                                           @RequestBody ItemDto itemDto,
@@ -39,8 +47,12 @@ public class ItemController {
 
     @GetMapping("/{itemId}")
     public ResponseEntity<ItemDto> get(@RequestHeader(XSHARERUSERID) Long userId,
-                                       @PathVariable Long itemId) {
+                                       @PathVariable Long itemId,
+                                       WebRequest webRequest) {
         log.info("GET запрос на получение вещи c id: {}", itemId);
+        if (webRequest.checkNotModified(itemService.getETag(userId, itemId))) {
+            return null;
+        }
         return ResponseEntity.ok(itemService.getItemById(userId, itemId));
     }
 
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Вещь в составе бронирования: только собственные поля, без бронирований, комментариев и запроса.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ItemShortDto {
+    private Long id;
+    private String name;
+    private String description;
+    private Boolean available;
+}
@@ -2,11 +2,37 @@ package ru.practicum.shareit.item.repository;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.item.model.Item;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
-public interface ItemRepository extends JpaRepository<Item, Long> {
+public interface ItemRepository extends JpaRepository<Item, Long>, ItemRepositoryCustom {
+    @EntityGraph(attributePaths = "itemRequest")
     Page<Item> findAllByOwnerIdOrderByIdAsc(Long ownerId, Pageable pageable);
-}
\ No newline at end of file
+
+    List<Item> findAllByItemRequestIdIn(Collection<Long> requestIds);
+
+    /**
+     * Версия карточки вещи для ETag: время изменения вещи, последний комментарий, последнее бронирование
+     * и сумма версий бронирований (растёт при подтверждении и отклонении), а также начало ближайшего
+     * подтверждённого бронирования, чтобы смена lastBooking/nextBooking со временем тоже меняла версию.
+     * Все подзапросы идут по индексам на item_id.
+     */
+    @Query(value = "SELECT CONCAT(i.updated_at, ':', " +
+            "(SELECT COALESCE(MAX(c.id), 0) FROM comments c WHERE c.item_id = i.id), ':', " +
+            "(SELECT CONCAT(COALESCE(MAX(b.id), 0), ':', COALESCE(SUM(b.version), 0)) " +
+            "FROM bookings b WHERE b.item_id = i.id), ':', " +
+            "(SELECT MIN(b.start_date) FROM bookings b " +
+            "WHERE b.item_id = i.id AND b.status = 'APPROVED' AND b.start_date > :now)) " +
+            "FROM items i WHERE i.id = :itemId", nativeQuery = true)
+    Optional<String> findItemVersion(@Param("itemId") Long itemId, @Param("now") LocalDateTime now);
+}
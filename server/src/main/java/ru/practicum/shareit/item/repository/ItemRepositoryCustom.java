@@ -0,0 +1,18 @@
+package ru.practicum.shareit.item.repository;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+public interface ItemRepositoryCustom {
+
+    /**
+     * Поиск доступных вещей по подстроке в названии или описании.
+     * Совпадения по названию выводятся раньше совпадений только по описанию. На PostgreSQL внутри
+     * этих групп вещи упорядочены по триграммному сходству с текстом (similarity из pg_trgm),
+     * на остальных базах — по id.
+     * Символы %, _ и \ в тексте должны быть экранированы обратной косой чертой.
+     */
+    List<Item> search(String text, Pageable pageable);
+}
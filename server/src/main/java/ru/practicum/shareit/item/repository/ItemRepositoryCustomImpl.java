@@ -0,0 +1,61 @@
+package ru.practicum.shareit.item.repository;
+
+import org.hibernate.dialect.PostgreSQL81Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.model.Item;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import java.util.List;
+
+public class ItemRepositoryCustomImpl implements ItemRepositoryCustom {
+
+    private static final String NAME_MATCHES = "lower(i.name) LIKE lower(concat('%', :text, '%')) ESCAPE '\\'";
+    private static final String DESCRIPTION_MATCHES =
+            "lower(i.description) LIKE lower(concat('%', :text, '%')) ESCAPE '\\'";
+
+    private static final String SEARCH = "SELECT i FROM Item i " +
+            "LEFT JOIN FETCH i.itemRequest " +
+            "WHERE i.available = true " +
+            "AND (" + NAME_MATCHES + " OR " + DESCRIPTION_MATCHES + ") " +
+            "ORDER BY CASE WHEN " + NAME_MATCHES + " THEN 0 ELSE 1 END, ";
+
+    // Выражения lower(...) совпадают с триграммными индексами из миграций db/migration/postgresql.
+    private static final String SIMILARITY_ORDER =
+            "function('similarity', lower(i.name), lower(:query)) DESC, " +
+            "function('similarity', lower(i.description), lower(:query)) DESC, ";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private Boolean postgreSql;
+
+    @Override
+    public List<Item> search(String text, Pageable pageable) {
+        boolean ranked = isPostgreSql();
+        TypedQuery<Item> query = entityManager.createQuery(SEARCH + (ranked ? SIMILARITY_ORDER : "") + "i.id",
+                        Item.class)
+                .setParameter("text", text);
+        if (ranked)
+            query.setParameter("query", unescapeLikePattern(text));
+        return query.setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+    }
+
+    private boolean isPostgreSql() {
+        if (postgreSql == null) {
+            postgreSql = entityManager.getEntityManagerFactory()
+                    .unwrap(SessionFactoryImplementor.class)
+                    .getJdbcServices()
+                    .getDialect() instanceof PostgreSQL81Dialect;
+        }
+        return postgreSql;
+    }
+
+    private static String unescapeLikePattern(String text) {
+        return text.replaceAll("\\\\(.)", "$1");
+    }
+}
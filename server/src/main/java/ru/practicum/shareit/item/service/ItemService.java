@@ -10,13 +10,19 @@ public interface ItemService {
 
     ItemDto create(Long userId, ItemDto itemDto);
 
+    List<ItemDto> createAll(Long userId, List<ItemDto> itemDtos);
+
     ItemDto update(Long userId, Long itemId, ItemDto itemDto);
 
     ItemDto getItemById(Long userId, Long itemId) throws ObjectNotFoundException;
 
+    String getETag(Long userId, Long itemId);
+
     List<ItemDto> getAll(Long userId, Integer from, Integer size);
 
     List<ItemDto> search(Long userId, String text, Integer from, Integer size);
 
     CommentDto createComment(Long userId, CommentDto commentDto, Long itemId);
+
+    void evictItemDetails(Long itemId);
 }
\ No newline at end of file
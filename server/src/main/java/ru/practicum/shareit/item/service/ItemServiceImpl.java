@@ -1,14 +1,21 @@
 package ru.practicum.shareit.item.service;
 
+import io.micrometer.core.annotation.Timed;
 import io.micrometer.core.instrument.util.StringUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.interceptor.SimpleKey;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.DigestUtils;
 import ru.practicum.shareit.booking.BookingMapper;
+import ru.practicum.shareit.booking.dto.BookingItemDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exceptions.NotFoundException;
@@ -21,11 +28,14 @@ import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
 import ru.practicum.shareit.user.UserMapper;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
 
+import javax.persistence.EntityManager;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -35,13 +45,19 @@ import java.util.stream.Collectors;
 @Slf4j
 @Service
 public class ItemServiceImpl implements ItemService {
+    public static final String ITEM_DETAILS_CACHE = "itemDetails";
+    private static final int IMPORT_BATCH_SIZE = 50;
+
     private final ItemRepository itemRepository;
     private final UserService userService;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
+    private final EntityManager entityManager;
+    private final CacheManager cacheManager;
 
     @Override
     @Transactional
+    @Timed(value = "shareit.service", histogram = true)
     public ItemDto create(Long userId, ItemDto itemDto) {
         UserDto user = userService.getUserById(userId);
         Item item = ItemMapper.toItem(itemDto);
@@ -51,8 +67,28 @@ public class ItemServiceImpl implements ItemService {
 
     @Override
     @Transactional
+    @Timed(value = "shareit.service", histogram = true)
+    public List<ItemDto> createAll(Long userId, List<ItemDto> itemDtos) {
+        User owner = UserMapper.toUser(userService.getUserById(userId));
+        List<ItemDto> created = new ArrayList<>(itemDtos.size());
+        List<Item> batch = new ArrayList<>(IMPORT_BATCH_SIZE);
+        for (ItemDto itemDto : itemDtos) {
+            Item item = ItemMapper.toItem(itemDto);
+            item.setOwner(owner);
+            batch.add(item);
+            if (batch.size() == IMPORT_BATCH_SIZE)
+                created.addAll(flushBatch(batch));
+        }
+        if (!batch.isEmpty())
+            created.addAll(flushBatch(batch));
+        return created;
+    }
+
+    @Override
+    @Transactional
+    @Timed(value = "shareit.service", histogram = true)
     public ItemDto update(Long userId, Long itemId, ItemDto itemDto) {
-        UserDto user = userService.getUserById(userId);
+        userService.checkUserExists(userId);
         Optional<Item> itemOptional = itemRepository.findById(itemId);
 
         itemOptional.orElseThrow(() -> new NotFoundException(String.format("Предмет с id %s не найтен.", itemId)));
@@ -74,14 +110,16 @@ public class ItemServiceImpl implements ItemService {
         item.setItemRequest(itemFromStorage.getItemRequest());
         item.setOwner(itemFromStorage.getOwner());
 
+        evictItemDetails(itemId);
         return ItemMapper.toItemDto(itemRepository.save(item));
     }
 
 
     @Override
     @Transactional(readOnly = true)
+    @Timed(value = "shareit.service", histogram = true)
     public ItemDto getItemById(Long userId, Long itemId) {
-        userService.getUserById(userId);
+        userService.checkUserExists(userId);
         Optional<Item> itemGet = itemRepository.findById(itemId);
         if (itemGet.isEmpty()) {
             log.warn("У пользователя с id {} не существует предмета с id {}", userId, itemId);
@@ -89,33 +127,86 @@ public class ItemServiceImpl implements ItemService {
                     "существует предмета с id %s", userId, itemId));
         }
         Item item = itemGet.get();
+        boolean owner = item.getOwner().getId().equals(userId);
+
+        Cache cache = itemDetailsCache();
+        SimpleKey key = new SimpleKey(itemId, owner);
+        ItemDto cached = cache.get(key, ItemDto.class);
+        if (cached != null)
+            return cached;
 
         ItemDto itemDto = ItemMapper.toItemDto(item);
         itemDto.setComments(getAllComments(itemId));
-        if (!item.getOwner().getId().equals(userId))
-            return itemDto;
-        getLastNextBooking(itemDto);
+        if (owner)
+            getLastNextBooking(itemDto);
+        cache.put(key, itemDto);
         return itemDto;
     }
 
+    /**
+     * ETag карточки вещи по её версии в БД: один запрос по индексам вместо загрузки вещи,
+     * комментариев и бронирований.
+     */
     @Override
     @Transactional(readOnly = true)
+    @Timed(value = "shareit.service", histogram = true)
+    public String getETag(Long userId, Long itemId) {
+        userService.checkUserExists(userId);
+        String version = itemRepository.findItemVersion(itemId, LocalDateTime.now()).orElseThrow(() -> {
+            log.warn("У пользователя с id {} не существует предмета с id {}", userId, itemId);
+            return new NotFoundException(String.format("У пользователя с id %s не " +
+                    "существует предмета с id %s", userId, itemId));
+        });
+        return DigestUtils.md5DigestAsHex((userId + ":" + version).getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @Timed(value = "shareit.service", histogram = true)
     public List<ItemDto> getAll(Long userId, Integer from, Integer size) {
-        userService.getUserById(userId);
-        Pageable pageable = PageRequest.of(from / size, size);
+        userService.checkUserExists(userId);
+        Pageable pageable = OffsetPageRequest.of(from, size);
 
         Page<Item> itemPage = itemRepository.findAllByOwnerIdOrderByIdAsc(userId, pageable);
         List<Item> itemList = itemPage.getContent();
 
         List<ItemDto> items = ItemMapper.mapToItemDto(itemList);
+        if (items.isEmpty())
+            return items;
+
+        List<Long> itemIds = items.stream()
+                .map(ItemDto::getId)
+                .collect(Collectors.toList());
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, BookingItemDto> lastBookings = groupBookingsByItemId(bookingRepository.getLastBookings(itemIds, now));
+        Map<Long, BookingItemDto> nextBookings = groupBookingsByItemId(bookingRepository.getNextBookings(itemIds, now));
+        Map<Long, List<CommentDto>> comments = commentRepository.findAllByItemIdIn(itemIds).stream()
+                .collect(Collectors.groupingBy(c -> c.getItem().getId(),
+                        Collectors.mapping(CommentMapper::toCommentDto, Collectors.toList())));
+
         items.forEach(i -> {
-            getLastNextBooking(i);
-            i.setComments(getAllComments(i.getId()));
+            i.setLastBooking(lastBookings.get(i.getId()));
+            i.setNextBooking(nextBookings.get(i.getId()));
+            i.setComments(comments.getOrDefault(i.getId(), new ArrayList<>()));
         });
 
         return items;
     }
 
+    private List<ItemDto> flushBatch(List<Item> batch) {
+        List<ItemDto> itemDtos = ItemMapper.mapToItemDto(itemRepository.saveAll(batch));
+        itemRepository.flush();
+        entityManager.clear();
+        batch.clear();
+        return itemDtos;
+    }
+
+    private Map<Long, BookingItemDto> groupBookingsByItemId(List<Booking> bookings) {
+        return bookings.stream()
+                .collect(Collectors.toMap(b -> b.getItem().getId(), BookingMapper::toBookingItemDto,
+                        (first, second) -> first));
+    }
+
     @Transactional
     public List<CommentDto> getAllComments(Long itemId) {
         List<Comment> comments = commentRepository.findAllByItemId(itemId);
@@ -127,21 +218,28 @@ public class ItemServiceImpl implements ItemService {
 
     @Override
     @Transactional(readOnly = true)
+    @Timed(value = "shareit.service", histogram = true)
     public List<ItemDto> search(Long userId, String text, Integer from, Integer size) {
-        userService.getUserById(userId);
-        Pageable pageable = PageRequest.of(from / size, size);
+        userService.checkUserExists(userId);
+        Pageable pageable = OffsetPageRequest.of(from, size);
         if (StringUtils.isBlank(text))
             return new ArrayList<>();
 
-        return ItemMapper.mapToItemDto(itemRepository.findAll(pageable).getContent().stream()
-                .filter(Item::getAvailable)
-                .filter(item -> item.getName().toLowerCase().contains(text.toLowerCase())
-                        || item.getDescription().toLowerCase().contains(text.toLowerCase()))
-                .collect(Collectors.toList()));
+        return ItemMapper.mapToItemDto(itemRepository.search(escapeLikePattern(text), pageable));
+    }
+
+    /**
+     * Поисковый текст ищется как подстрока, а не как шаблон LIKE.
+     */
+    private static String escapeLikePattern(String text) {
+        return text.replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
     }
 
     @Override
     @Transactional
+    @Timed(value = "shareit.service", histogram = true)
     public CommentDto createComment(Long userId, CommentDto commentDto, Long itemId) {
         User user = UserMapper.toUser(userService.getUserById(userId));
 
@@ -162,9 +260,38 @@ public class ItemServiceImpl implements ItemService {
                     "предмета с id %s.", userId, itemId));
         }
 
+        evictItemDetails(itemId);
         return CommentMapper.toCommentDto(commentRepository.save(CommentMapper.toComment(commentDto, item, user)));
     }
 
+    /**
+     * Внутри транзакции сброс откладывается до её фиксации: иначе параллельное чтение между сбросом
+     * и коммитом вернуло бы в кеш ещё не изменённую вещь.
+     */
+    @Override
+    public void evictItemDetails(Long itemId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evictNow(itemId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evictNow(itemId);
+            }
+        });
+    }
+
+    private void evictNow(Long itemId) {
+        Cache cache = itemDetailsCache();
+        cache.evict(new SimpleKey(itemId, true));
+        cache.evict(new SimpleKey(itemId, false));
+    }
+
+    private Cache itemDetailsCache() {
+        return Objects.requireNonNull(cacheManager.getCache(ITEM_DETAILS_CACHE));
+    }
+
     @Transactional
     private void getLastNextBooking(ItemDto itemDto) {
         Optional<Booking> lastBooking = bookingRepository.getLastBooking(itemDto.getId(), LocalDateTime.now());
@@ -0,0 +1,35 @@
+package ru.practicum.shareit.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Пропускает в журнал только каждый N-й SQL-запрос Hibernate. Решение принимается до создания
+ * события, поэтому отброшенные запросы не тратят время на форматирование и очередь appender-а.
+ */
+public class SqlSamplingTurboFilter extends TurboFilter {
+
+    private static final String SQL_LOGGER = "org.hibernate.SQL";
+
+    private final AtomicLong counter = new AtomicLong();
+    private long sampleEvery = 100;
+
+    public void setSampleEvery(long sampleEvery) {
+        this.sampleEvery = sampleEvery;
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params,
+                              Throwable t) {
+        // format == null у проверок isDebugEnabled(): их не сэмплируем, иначе счётчик сбивается.
+        if (format == null || level != Level.DEBUG || !SQL_LOGGER.equals(logger.getName())) {
+            return FilterReply.NEUTRAL;
+        }
+        return counter.getAndIncrement() % sampleEvery == 0 ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+}
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Счётчик SQL-запросов на HTTP-запрос. Реестр метрик берётся через {@link ObjectProvider}:
+ * в срезах {@code @WebMvcTest} его нет, и тогда перехватчик просто не регистрируется.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class QueryCountWebConfig implements WebMvcConfigurer {
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        meterRegistry.ifAvailable(meters -> registry.addInterceptor(new QueryCountInterceptor(meters)));
+    }
+}
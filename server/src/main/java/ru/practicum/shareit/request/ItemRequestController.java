@@ -6,6 +6,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.service.RequestService;
 
@@ -29,20 +30,34 @@ public class ItemRequestController {
     }
 
     @GetMapping
-    public ResponseEntity<List<ItemRequestDto>> getUserRequests(@RequestHeader(XSHARERUSERID) Long userId) {
-        return ResponseEntity.ok(requestService.getUserRequests(userId));
+    public ResponseEntity<List<ItemRequestDto>> getUserRequests(@RequestHeader(XSHARERUSERID) Long userId,
+                                                                @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                                                @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                                                WebRequest webRequest) {
+        if (webRequest.checkNotModified(requestService.getUserRequestsETag(userId, from, size))) {
+            return null;
+        }
+        return ResponseEntity.ok(requestService.getUserRequests(userId, from, size));
     }
 
     @GetMapping("/all")
     public ResponseEntity<List<ItemRequestDto>> getAllRequests(@RequestHeader(XSHARERUSERID) Long userId,
                                                                @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                                               @RequestParam(name = "size", defaultValue = "10") Integer size) {
+                                                               @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                                               WebRequest webRequest) {
+        if (webRequest.checkNotModified(requestService.getAllRequestsETag(userId, from, size))) {
+            return null;
+        }
         return ResponseEntity.ok(requestService.getAllRequests(userId, from, size));
     }
 
     @GetMapping("/{requestId}")
     public ResponseEntity<ItemRequestDto> get(@RequestHeader(XSHARERUSERID) Long userId,
-                                              @PathVariable Long requestId) {
+                                              @PathVariable Long requestId,
+                                              WebRequest webRequest) {
+        if (webRequest.checkNotModified(requestService.getRequestETag(userId, requestId))) {
+            return null;
+        }
         return ResponseEntity.ok(requestService.getRequestById(userId, requestId));
     }
 }
\ No newline at end of file
@@ -3,6 +3,7 @@ package ru.practicum.shareit.request;
 import lombok.experimental.UtilityClass;
 import ru.practicum.shareit.item.ItemMapper;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
@@ -22,10 +23,14 @@ public class RequestMapping {
     }
 
     public static ItemRequestDto toRequestDto(ItemRequest request) {
+        return toRequestDto(request, request.getItems());
+    }
+
+    public static ItemRequestDto toRequestDto(ItemRequest request, List<Item> items) {
         List<ItemDto> itemsDto = new ArrayList<>();
 
-        if (!Objects.isNull(request.getItems())) {
-            itemsDto = request.getItems().stream()
+        if (!Objects.isNull(items)) {
+            itemsDto = items.stream()
                     .map(ItemMapper::toItemDto)
                     .collect(Collectors.toList());
         }
@@ -28,7 +28,7 @@ public class ItemRequest {
     @Column(name = "description", nullable = false, length = 255)
     private String description;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "requester_id",nullable = false, referencedColumnName = "id")
     private User requester;
 
@@ -36,6 +36,6 @@ public class ItemRequest {
     @Column(name = "created")
     private LocalDateTime created;
 
-    @OneToMany(mappedBy = "itemRequest")
+    @OneToMany(mappedBy = "itemRequest", fetch = FetchType.LAZY)
     private List<Item> items = new ArrayList<>();
 }
\ No newline at end of file
@@ -1,16 +1,39 @@
 package ru.practicum.shareit.request.repository;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.request.model.ItemRequest;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface RequestRepository extends JpaRepository<ItemRequest, Long> {
 
-    List<ItemRequest> findAllByRequesterId(Long userId);
+    @Override
+    @EntityGraph(attributePaths = "items")
+    Optional<ItemRequest> findById(Long requestId);
+
+    List<ItemRequest> findAllByRequesterIdOrderByCreatedDesc(Long userId, Pageable pageable);
 
     List<ItemRequest> findAllByRequester_IdNotOrderByCreatedDesc(Long userId, Pageable pageable);
-}
\ No newline at end of file
+
+    @Query("SELECT r.id FROM ItemRequest r WHERE r.requester.id = :userId ORDER BY r.created DESC")
+    List<Long> findIdsByRequesterId(@Param("userId") Long userId, Pageable pageable);
+
+    @Query("SELECT r.id FROM ItemRequest r WHERE r.requester.id <> :userId ORDER BY r.created DESC")
+    List<Long> findIdsByRequesterIdNot(@Param("userId") Long userId, Pageable pageable);
+
+    /**
+     * Сводка по вещам, созданным в ответ на запросы: меняется при добавлении, изменении
+     * и удалении такой вещи. Вместе с id запросов служит основой ETag для /requests.
+     */
+    @Query("SELECT CONCAT(COUNT(i.id), ':', MAX(i.updatedAt)) FROM Item i " +
+            "WHERE i.itemRequest.id IN :requestIds")
+    String findAnswersVersion(@Param("requestIds") Collection<Long> requestIds);
+}
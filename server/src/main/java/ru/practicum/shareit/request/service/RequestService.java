@@ -8,10 +8,16 @@ public interface RequestService {
 
     ItemRequestDto add(Long userId, ItemRequestDto requestDto);
 
-    List<ItemRequestDto> getUserRequests(Long userId);
+    List<ItemRequestDto> getUserRequests(Long userId, Integer from, Integer size);
 
     List<ItemRequestDto> getAllRequests(Long userId, Integer from, Integer size);
 
     ItemRequestDto getRequestById(Long userId, Long requestId);
 
+    String getUserRequestsETag(Long userId, Integer from, Integer size);
+
+    String getAllRequestsETag(Long userId, Integer from, Integer size);
+
+    String getRequestETag(Long userId, Long requestId);
+
 }
\ No newline at end of file
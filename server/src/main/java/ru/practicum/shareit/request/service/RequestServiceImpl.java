@@ -1,11 +1,15 @@
 package ru.practicum.shareit.request.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.DigestUtils;
 import ru.practicum.shareit.exceptions.NotFoundException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.RequestMapping;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.model.ItemRequest;
@@ -14,8 +18,10 @@ import ru.practicum.shareit.user.UserMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
 
-import java.util.Comparator;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -27,9 +33,11 @@ public class RequestServiceImpl implements RequestService {
 
     private final UserService userService;
     private final RequestRepository requestRepository;
+    private final ItemRepository itemRepository;
 
     @Override
     @Transactional
+    @Timed(value = "shareit.service", histogram = true)
     public ItemRequestDto add(Long userId, ItemRequestDto itemRequestDto) {
         User user = UserMapper.toUser(userService.getUserById(userId));
         ItemRequest request = RequestMapping.toRequest(user, itemRequestDto);
@@ -39,30 +47,29 @@ public class RequestServiceImpl implements RequestService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<ItemRequestDto> getUserRequests(Long userId) {
-        userService.getUserById(userId);
-        List<ItemRequest> itemRequestList = requestRepository.findAllByRequesterId(userId);
-        return itemRequestList.stream()
-                .sorted(Comparator.comparing(ItemRequest::getCreated).reversed())
-                .map(RequestMapping::toRequestDto)
-                .collect(Collectors.toList());
+    @Timed(value = "shareit.service", histogram = true)
+    public List<ItemRequestDto> getUserRequests(Long userId, Integer from, Integer size) {
+        userService.checkUserExists(userId);
+        List<ItemRequest> itemRequestList = requestRepository.findAllByRequesterIdOrderByCreatedDesc(userId,
+                PageRequest.of(from / size, size));
+        return toRequestDtoWithItems(itemRequestList);
     }
 
     @Override
     @Transactional
+    @Timed(value = "shareit.service", histogram = true)
     public List<ItemRequestDto> getAllRequests(Long userId, Integer from, Integer size) {
-        userService.getUserById(userId);
+        userService.checkUserExists(userId);
         List<ItemRequest> itemRequestList = requestRepository.findAllByRequester_IdNotOrderByCreatedDesc(userId,
                 PageRequest.of(from / size, size));
-        return itemRequestList.stream()
-                .map(RequestMapping::toRequestDto)
-                .collect(Collectors.toList());
+        return toRequestDtoWithItems(itemRequestList);
     }
 
     @Override
     @Transactional
+    @Timed(value = "shareit.service", histogram = true)
     public ItemRequestDto getRequestById(Long userId, Long requestId) {
-        userService.getUserById(userId);
+        userService.checkUserExists(userId);
         Optional<ItemRequest> requestById = requestRepository.findById(requestId);
 
         if (requestById.isEmpty()) {
@@ -72,4 +79,59 @@ public class RequestServiceImpl implements RequestService {
         }
         return RequestMapping.toRequestDto(requestById.get());
     }
-}
\ No newline at end of file
+
+    /**
+     * ETag страницы своих запросов: id запросов на странице и сводка по вещам-ответам на них.
+     * Запросы других пользователей на него не влияют.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    @Timed(value = "shareit.service", histogram = true)
+    public String getUserRequestsETag(Long userId, Integer from, Integer size) {
+        userService.checkUserExists(userId);
+        return eTag(userId, requestRepository.findIdsByRequesterId(userId, PageRequest.of(from / size, size)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @Timed(value = "shareit.service", histogram = true)
+    public String getAllRequestsETag(Long userId, Integer from, Integer size) {
+        userService.checkUserExists(userId);
+        return eTag(userId, requestRepository.findIdsByRequesterIdNot(userId, PageRequest.of(from / size, size)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @Timed(value = "shareit.service", histogram = true)
+    public String getRequestETag(Long userId, Long requestId) {
+        userService.checkUserExists(userId);
+        if (!requestRepository.existsById(requestId)) {
+            log.debug("Запрос с id {} не был найден.", requestId);
+            throw new NotFoundException(String.format("Запрос с id: %d " +
+                    "не был найден.", requestId));
+        }
+        return eTag(userId, List.of(requestId));
+    }
+
+    private String eTag(Long userId, List<Long> requestIds) {
+        String version = userId + ":" + requestIds;
+        if (!requestIds.isEmpty())
+            version += ":" + requestRepository.findAnswersVersion(requestIds);
+        return DigestUtils.md5DigestAsHex(version.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private List<ItemRequestDto> toRequestDtoWithItems(List<ItemRequest> requests) {
+        if (requests.isEmpty())
+            return new ArrayList<>();
+
+        List<Long> requestIds = requests.stream()
+                .map(ItemRequest::getId)
+                .collect(Collectors.toList());
+        Map<Long, List<Item>> items = itemRepository.findAllByItemRequestIdIn(requestIds).stream()
+                .collect(Collectors.groupingBy(i -> i.getItemRequest().getId()));
+
+        return requests.stream()
+                .map(r -> RequestMapping.toRequestDto(r, items.getOrDefault(r.getId(), new ArrayList<>())))
+                .collect(Collectors.toList());
+    }
+}
@@ -1,12 +1,18 @@
 package ru.practicum.shareit.user;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 @Slf4j
@@ -15,7 +21,10 @@ import java.util.List;
 @RequestMapping(path = "/users")
 public class UserController {
 
+    private static final String APPLICATION_NDJSON = "application/x-ndjson";
+
     private final UserService userService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     public ResponseEntity<UserDto> add(@RequestBody UserDto user) {
@@ -30,14 +39,34 @@ public class UserController {
     }
 
     @GetMapping
-    public ResponseEntity<List<UserDto>> getAll() {
-        log.info("GET запрос на получение списка всех пользователей.");
-        return ResponseEntity.ok(userService.getAll());
+    public ResponseEntity<List<UserDto>> getAll(@RequestParam(name = "from", defaultValue = "0") Integer from,
+                                                @RequestParam(name = "size", defaultValue = "10") Integer size) {
+        log.info("GET запрос на получение списка пользователей, from: {}, size: {}", from, size);
+        return ResponseEntity.ok(userService.getAll(from, size));
+    }
+
+    @GetMapping(path = "/export", produces = APPLICATION_NDJSON)
+    public ResponseEntity<StreamingResponseBody> export() {
+        log.info("GET запрос на выгрузку всех пользователей.");
+        StreamingResponseBody body = out -> userService.exportAll(user -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(user));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(APPLICATION_NDJSON))
+                .body(body);
     }
 
     @GetMapping("/{userId}")
-    public ResponseEntity<UserDto> get(@PathVariable Long userId) {
+    public ResponseEntity<UserDto> get(@PathVariable Long userId, WebRequest webRequest) {
         log.info("GET запрос на получение пользователя c id: {}", userId);
+        if (webRequest.checkNotModified(userService.getETag(userId))) {
+            return null;
+        }
         return ResponseEntity.ok(userService.getUserById(userId));
     }
 
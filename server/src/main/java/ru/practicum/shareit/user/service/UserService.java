@@ -3,6 +3,7 @@ package ru.practicum.shareit.user.service;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface UserService {
 
@@ -10,9 +11,15 @@ public interface UserService {
 
     UserDto update(Long userId, UserDto userDto);
 
-    List<UserDto> getAll();
+    List<UserDto> getAll(Integer from, Integer size);
+
+    void exportAll(Consumer<UserDto> action);
 
     void delete(Long userId);
 
     UserDto getUserById(Long userId);
+
+    void checkUserExists(Long userId);
+
+    String getETag(Long userId);
 }
\ No newline at end of file
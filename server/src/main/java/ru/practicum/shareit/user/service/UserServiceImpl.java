@@ -1,40 +1,59 @@
 package ru.practicum.shareit.user.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.DigestUtils;
 import org.springframework.util.StringUtils;
+import ru.practicum.shareit.exceptions.ConflictException;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.user.UserMapper;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import javax.persistence.EntityManager;
 import javax.validation.ValidationException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Objects;
-import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Slf4j
 @RequiredArgsConstructor
 @Service
 public class UserServiceImpl implements UserService {
+    private static final String EMAIL_UNIQUE_CONSTRAINT = "UQ_USER_EMAIL";
 
     private final UserRepository userRepository;
+    private final EntityManager entityManager;
 
     @Override
+    @Timed(value = "shareit.service", histogram = true)
     public UserDto add(UserDto userDto) {
         User user = UserMapper.toUser(userDto);
         validation(user);
-        var userObject = userRepository.save(user);
-        return UserMapper.toUserDto(userObject);
+        try {
+            return UserMapper.toUserDto(userRepository.save(user));
+        } catch (DataIntegrityViolationException e) {
+            if (!isEmailUniqueViolation(e))
+                throw e;
+            throw emailExists(user.getEmail());
+        }
     }
 
     @Transactional
     @Override
+    @Timed(value = "shareit.service", histogram = true)
     public UserDto update(Long userId, UserDto userDto) {
-        userNotExists(userId);
         User user = UserMapper.toUser(userDto);
         UserDto userFromStorage = getUserById(userId);
         if (Objects.isNull(user.getName())) user.setName(userFromStorage.getName());
@@ -43,31 +62,75 @@ public class UserServiceImpl implements UserService {
         } else {
             String email = user.getEmail();
             boolean isEmailNotChange = userFromStorage.getEmail().equals(email);
-            if (!isEmailNotChange) validEmail(user);
+            if (!isEmailNotChange) validEmail(userId, email);
         }
         user.setId(userId);
         validation(user);
-        return UserMapper.toUserDto(userRepository.save(user));
+        try {
+            return UserMapper.toUserDto(userRepository.saveAndFlush(user));
+        } catch (DataIntegrityViolationException e) {
+            if (!isEmailUniqueViolation(e))
+                throw e;
+            throw emailExists(user.getEmail());
+        }
     }
 
-    @Transactional
+    @Transactional(readOnly = true)
+    @Override
+    @Timed(value = "shareit.service", histogram = true)
+    public List<UserDto> getAll(Integer from, Integer size) {
+        return UserMapper.mapToUserDto(userRepository.findAll(
+                PageRequest.of(from / size, size, Sort.by("id"))).getContent());
+    }
+
+    @Transactional(readOnly = true)
     @Override
-    public List<UserDto> getAll() {
-        return UserMapper.mapToUserDto(userRepository.findAll());
+    @Timed(value = "shareit.service", histogram = true)
+    public void exportAll(Consumer<UserDto> action) {
+        try (Stream<User> users = userRepository.streamAllOrderById()) {
+            users.forEach(user -> {
+                action.accept(UserMapper.toUserDto(user));
+                entityManager.detach(user);
+            });
+        }
     }
 
     @Transactional
+    @Timed(value = "shareit.service", histogram = true)
     public void delete(Long userId) {
-        userNotExists(userId);
+        checkUserExists(userId);
         userRepository.deleteById(userId);
     }
 
-    @Transactional
+    @Transactional(readOnly = true)
+    @Timed(value = "shareit.service", histogram = true)
     public UserDto getUserById(Long userId) {
-        userNotExists(userId);
-        Optional<User> user = userRepository.findById(userId);
-        user.ifPresent(this::validation);
-        return UserMapper.toUserDto(user.get());
+        User user = userRepository.findById(userId).orElseThrow(() -> userNotFound(userId));
+        validation(user);
+        return UserMapper.toUserDto(user);
+    }
+
+    /**
+     * Проверка существования пользователя без загрузки сущности, для методов,
+     * которым из пользователя нужен только id.
+     */
+    @Transactional(readOnly = true)
+    @Timed(value = "shareit.service", histogram = true)
+    public void checkUserExists(Long userId) {
+        if (!userRepository.existsById(userId))
+            throw userNotFound(userId);
+    }
+
+    /**
+     * ETag пользователя по времени последнего изменения: читается одна колонка,
+     * без загрузки сущности и сериализации DTO.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    @Timed(value = "shareit.service", histogram = true)
+    public String getETag(Long userId) {
+        LocalDateTime updatedAt = userRepository.findUpdatedAtById(userId).orElseThrow(() -> userNotFound(userId));
+        return DigestUtils.md5DigestAsHex((userId + ":" + updatedAt).getBytes(StandardCharsets.UTF_8));
     }
 
     private void validation(User user) throws ValidationException {
@@ -92,21 +155,31 @@ public class UserServiceImpl implements UserService {
         }
     }
 
-    private void userNotExists(Long user) {
-        userRepository.findById(user).orElseThrow(() -> {
-            log.error("user service получает пользователя по ошибке: user с id {} не найден.", user);
-            return new NotFoundException(String.format("Пользователь с id: %s не найден!", user));
-        });
+    private NotFoundException userNotFound(Long user) {
+        log.error("user service получает пользователя по ошибке: user с id {} не найден.", user);
+        return new NotFoundException(String.format("Пользователь с id: %s не найден!", user));
+    }
+
+    private void validEmail(Long userId, String email) {
+        if (userRepository.existsByEmailIgnoreCaseAndIdNot(email, userId)) {
+            throw emailExists(email);
+        }
+    }
+
+    private ConflictException emailExists(String email) {
+        log.error("user service получает email по ошибке: email {} уже существует.", email);
+        return new ConflictException("Адрес электронной почты уже существует.");
     }
 
-    private void validEmail(User user) {
-        String email = user.getEmail();
-        List<User> userList = userRepository.findAll();
-        for (User user1 : userList)
-            if (user1.getEmail().contains(email)) {
-                log.error("user service получает email по ошибке: email {} уже существует.", email);
-                throw new ValidationException("Адрес электронной почты уже существует.");
-            }
+    /**
+     * Нарушена ли уникальность email: ограничение UQ_USER_EMAIL или индекс uq_user_email_upper (миграции V1, V4).
+     * Имя сравнивается без учёта регистра и по вхождению: H2 добавляет к нему схему и суффикс индекса.
+     */
+    private static boolean isEmailUniqueViolation(DataIntegrityViolationException e) {
+        if (!(e.getCause() instanceof ConstraintViolationException))
+            return false;
+        String constraintName = ((ConstraintViolationException) e.getCause()).getConstraintName();
+        return constraintName != null && constraintName.toUpperCase().contains(EMAIL_UNIQUE_CONSTRAINT);
     }
 }
 
@@ -0,0 +1 @@
+CREATE UNIQUE INDEX IF NOT EXISTS uq_user_email_upper ON users (upper(email));
@@ -0,0 +1 @@
+ALTER TABLE items ALTER COLUMN id SET INCREMENT BY 50;
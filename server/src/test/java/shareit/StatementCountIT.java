@@ -0,0 +1,131 @@
+package shareit;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingDtoOut;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.service.RequestService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Transactional
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class StatementCountIT {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private RequestService requestService;
+
+    private Statistics statistics;
+
+    private UserDto owner;
+
+    private UserDto booker;
+
+    private ItemDto item;
+
+    private BookingDtoOut booking;
+
+    private ItemRequestDto request;
+
+    @BeforeEach
+    public void init() {
+        owner = userService.add(UserDto.builder().name("owner").email("owner@email.com").build());
+        booker = userService.add(UserDto.builder().name("booker").email("booker@email.com").build());
+        item = itemService.create(owner.getId(), ItemDto.builder()
+                .name("item name")
+                .description("item description")
+                .available(true)
+                .build());
+        booking = bookingService.add(booker.getId(), BookingDto.builder()
+                .itemId(item.getId())
+                .start(LocalDateTime.now().plusDays(1L))
+                .end(LocalDateTime.now().plusDays(2L))
+                .build());
+        bookingService.update(owner.getId(), booking.getId(), true, null);
+        request = requestService.add(booker.getId(), ItemRequestDto.builder()
+                .description("request description")
+                .build());
+
+        entityManager.flush();
+        entityManager.clear();
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("Количество запросов при получении вещи владельцем")
+    void getItemById() {
+        itemService.getItemById(owner.getId(), item.getId());
+
+        assertStatementCountAtMost(5);
+    }
+
+    @Test
+    @DisplayName("Количество запросов при получении вещей владельца")
+    void getAllItems() {
+        itemService.getAll(owner.getId(), 0, 10);
+
+        assertStatementCountAtMost(5);
+    }
+
+    @Test
+    @DisplayName("Количество запросов при получении бронирования")
+    void getBookingById() {
+        bookingService.getBookingById(booker.getId(), booking.getId());
+
+        assertStatementCountAtMost(1);
+    }
+
+    @Test
+    @DisplayName("Количество запросов при получении бронирований владельца")
+    void getAllOwnerBookings() {
+        bookingService.getAllOwner(owner.getId(), BookingState.ALL.toString(), 0, 10);
+
+        assertStatementCountAtMost(2);
+    }
+
+    @Test
+    @DisplayName("Количество запросов при получении запроса вещи")
+    void getRequestById() {
+        requestService.getRequestById(owner.getId(), request.getId());
+
+        assertStatementCountAtMost(2);
+    }
+
+    private void assertStatementCountAtMost(long expected) {
+        long actual = statistics.getPrepareStatementCount();
+        assertTrue(actual <= expected, String.format("Ожидалось не более %d SQL-запросов, выполнено %d",
+                expected, actual));
+    }
+}
@@ -9,12 +9,17 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.booking.BookingController;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoOut;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exceptions.ConflictException;
+import ru.practicum.shareit.item.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserMapper;
 import ru.practicum.shareit.user.model.User;
 
 
@@ -62,8 +67,8 @@ class BookingControllerTest {
             .start(LocalDateTime.now())
             .end(LocalDateTime.now())
             .status(BookingStatus.WAITING)
-            .booker(user)
-            .item(item)
+            .booker(UserMapper.toUserDto(user))
+            .item(ItemMapper.toItemShortDto(item))
             .build();
 
     @Test
@@ -103,6 +108,44 @@ class BookingControllerTest {
         verify(bookingService, never()).add(user.getId(), bookingDto);
     }
 
+    @Test
+    @SneakyThrows
+    @DisplayName("Тестирование эндпоинта post /bookings при пересечении с существующим бронированием")
+    void createBooking_whenPeriodIsTaken_thenReturnConflict() {
+        when(bookingService.add(user.getId(), bookingDto))
+                .thenThrow(new ConflictException("Вещь с id 1 уже забронирована на указанный период."));
+
+        mockMvc.perform(post("/bookings")
+                        .contentType("application/json")
+                        .header("X-Sharer-User-Id", user.getId())
+                        .content(objectMapper.writeValueAsString(bookingDto)))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    @SneakyThrows
+    @DisplayName("Тестирование эндпоинта patch /bookings/batch")
+    void updateStatuses_whenDecisionsAreValid_thenReturnResults() {
+        List<BookingDecisionDto> decisions = List.of(new BookingDecisionDto(1L, true));
+        List<BookingDecisionResultDto> results = List.of(BookingDecisionResultDto.builder()
+                .bookingId(1L)
+                .status(BookingStatus.APPROVED)
+                .build());
+
+        when(bookingService.updateAll(user.getId(), decisions)).thenReturn(results);
+
+        String result = mockMvc.perform(patch("/bookings/batch")
+                        .contentType("application/json")
+                        .header("X-Sharer-User-Id", user.getId())
+                        .content(objectMapper.writeValueAsString(decisions)))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        assertEquals(objectMapper.writeValueAsString(results), result);
+    }
+
     @Test
     @SneakyThrows
     @DisplayName("Тестирование эндпоинта patch /bookings/{bookingId}")
@@ -110,7 +153,7 @@ class BookingControllerTest {
         Boolean approved = true;
         Long bookingId = 1L;
 
-        when(bookingService.update(user.getId(), bookingId, approved)).thenReturn(bookingDtoOut);
+        when(bookingService.update(user.getId(), bookingId, approved, null)).thenReturn(bookingDtoOut);
 
         String result = mockMvc.perform(patch("/bookings/{bookingId}", bookingId)
                         .contentType("application/json")
@@ -1,5 +1,7 @@
 package shareit.booking;
 
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -7,11 +9,15 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.dto.BookingDtoOut;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingCursor;
+import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingFilter;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
@@ -22,6 +28,8 @@ import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
 @DataJpaTest
@@ -94,7 +102,8 @@ class BookingRepositoryTest {
     @Test
     @DisplayName("Тестирование получения всех бронирований по Id пользователя")
     void findAllByBookerId() {
-        Page<Booking> bookings = bookingRepository.findAllByBookerId(1L, PageRequest.of(0, 10));
+        Slice<BookingDtoOut> bookings = bookingRepository.findAll(filter(1L, BookingFilter.Role.BOOKER, BookingState.ALL),
+                PageRequest.of(0, 10));
 
         assertEquals(bookings.getContent().size(), 3);
         assertEquals(bookings.getContent().get(0).getBooker().getId(), 1L);
@@ -103,7 +112,7 @@ class BookingRepositoryTest {
     @Test
     @DisplayName("Тестирование получения всех текущих бронирований")
     void findAllCurrentBookingsByBookerId() {
-        Page<Booking> bookings = bookingRepository.findAllCurrentBookingsByBookerId(1L, LocalDateTime.now(),
+        Slice<BookingDtoOut> bookings = bookingRepository.findAll(filter(1L, BookingFilter.Role.BOOKER, BookingState.CURRENT),
                 PageRequest.of(0, 10));
 
         assertEquals(bookings.getContent().size(), 1);
@@ -113,7 +122,7 @@ class BookingRepositoryTest {
     @Test
     @DisplayName("Тестирование получения всех закончившихся бронирований")
     void findAllPastBookingsByBookerId() {
-        Page<Booking> bookings = bookingRepository.findAllPastBookingsByBookerId(1L, LocalDateTime.now(),
+        Slice<BookingDtoOut> bookings = bookingRepository.findAll(filter(1L, BookingFilter.Role.BOOKER, BookingState.PAST),
                 PageRequest.of(0, 10));
 
         assertEquals(bookings.getContent().size(), 1);
@@ -123,7 +132,7 @@ class BookingRepositoryTest {
     @Test
     @DisplayName("Тестирование получения всех будущих бронирований")
     void findAllFutureBookingsByBookerId() {
-        Page<Booking> bookings = bookingRepository.findAllFutureBookingsByBookerId(1L, LocalDateTime.now(),
+        Slice<BookingDtoOut> bookings = bookingRepository.findAll(filter(1L, BookingFilter.Role.BOOKER, BookingState.FUTURE),
                 PageRequest.of(0, 10));
 
         assertEquals(bookings.getContent().size(), 1);
@@ -142,7 +151,7 @@ class BookingRepositoryTest {
                 .build();
 
         bookingRepository.save(waitingBooking);
-        Page<Booking> bookings = bookingRepository.findAllWaitingBookingsByBookerId(1L, LocalDateTime.now(),
+        Slice<BookingDtoOut> bookings = bookingRepository.findAll(filter(1L, BookingFilter.Role.BOOKER, BookingState.WAITING),
                 PageRequest.of(0, 10));
 
         assertEquals(bookings.getContent().size(), 1);
@@ -161,7 +170,7 @@ class BookingRepositoryTest {
                 .build();
 
         bookingRepository.save(rejectedBooking);
-        Page<Booking> bookings = bookingRepository.findAllRejectedBookingsByBookerId(1L,
+        Slice<BookingDtoOut> bookings = bookingRepository.findAll(filter(1L, BookingFilter.Role.BOOKER, BookingState.REJECTED),
                 PageRequest.of(0, 10));
 
         assertEquals(bookings.getContent().size(), 1);
@@ -171,7 +180,8 @@ class BookingRepositoryTest {
     @Test
     @DisplayName("Тестирование получения всех бронирований по Id владельца")
     void findAllByOwnerId() {
-        Page<Booking> bookings = bookingRepository.findAllByOwnerId(2L, PageRequest.of(0, 10));
+        Slice<BookingDtoOut> bookings = bookingRepository.findAll(filter(2L, BookingFilter.Role.OWNER, BookingState.ALL),
+                PageRequest.of(0, 10));
 
         assertEquals(bookings.getContent().size(), 3);
     }
@@ -179,31 +189,31 @@ class BookingRepositoryTest {
     @Test
     @DisplayName("Тестирование получения всех текущих бронирований по Id владельца")
     void findAllCurrentBookingsByOwnerId() {
-        Page<Booking> bookings = bookingRepository.findAllCurrentBookingsByOwnerId(2L, LocalDateTime.now(),
+        Slice<BookingDtoOut> bookings = bookingRepository.findAll(filter(2L, BookingFilter.Role.OWNER, BookingState.CURRENT),
                 PageRequest.of(0, 10));
 
         assertEquals(bookings.getContent().size(), 1);
-        assertEquals(bookings.getContent().get(0).getItem().getOwner().getId(), 2L);
+        assertEquals(bookings.getContent().get(0).getItem().getId(), 1L);
     }
 
     @Test
     @DisplayName("Тестирование получения всех закончившихся бронирований по Id владельца")
     void findAllPastBookingsByOwnerId() {
-        Page<Booking> bookings = bookingRepository.findAllPastBookingsByOwnerId(2L, LocalDateTime.now(),
+        Slice<BookingDtoOut> bookings = bookingRepository.findAll(filter(2L, BookingFilter.Role.OWNER, BookingState.PAST),
                 PageRequest.of(0, 10));
 
         assertEquals(bookings.getContent().size(), 1);
-        assertEquals(bookings.getContent().get(0).getItem().getOwner().getId(), 2L);
+        assertEquals(bookings.getContent().get(0).getItem().getId(), 1L);
     }
 
     @Test
     @DisplayName("Тестирование получения всех будущих бронирований по Id владельца")
     void findAllFutureBookingsByOwnerId() {
-        Page<Booking> bookings = bookingRepository.findAllFutureBookingsByOwnerId(2L, LocalDateTime.now(),
+        Slice<BookingDtoOut> bookings = bookingRepository.findAll(filter(2L, BookingFilter.Role.OWNER, BookingState.FUTURE),
                 PageRequest.of(0, 10));
 
         assertEquals(bookings.getContent().size(), 1);
-        assertEquals(bookings.getContent().get(0).getItem().getOwner().getId(), 2L);
+        assertEquals(bookings.getContent().get(0).getItem().getId(), 1L);
     }
 
     @Test
@@ -218,7 +228,7 @@ class BookingRepositoryTest {
                 .build();
 
         bookingRepository.save(waitingBooking);
-        Page<Booking> bookings = bookingRepository.findAllWaitingBookingsByOwnerId(2L, LocalDateTime.now(),
+        Slice<BookingDtoOut> bookings = bookingRepository.findAll(filter(2L, BookingFilter.Role.OWNER, BookingState.WAITING),
                 PageRequest.of(0, 10));
 
         assertEquals(bookings.getContent().size(), 1);
@@ -237,7 +247,7 @@ class BookingRepositoryTest {
                 .build();
 
         bookingRepository.save(rejectedBooking);
-        Page<Booking> bookings = bookingRepository.findAllRejectedBookingsByOwnerId(2L,
+        Slice<BookingDtoOut> bookings = bookingRepository.findAll(filter(2L, BookingFilter.Role.OWNER, BookingState.REJECTED),
                 PageRequest.of(0, 10));
 
         assertEquals(bookings.getContent().size(), 1);
@@ -284,6 +294,78 @@ class BookingRepositoryTest {
             fail();
         }
     }
-}
 
+    @Test
+    @DisplayName("Тестирование получения последних бронирований по списку Id вещей")
+    void getLastBookings() {
+        List<Booking> bookings = bookingRepository.getLastBookings(List.of(1L), LocalDateTime.now());
+
+        assertEquals(bookings.size(), 1);
+        assertEquals(bookings.get(0).getId(), 1L);
+    }
+
+    @Test
+    @DisplayName("Тестирование получения следующих бронирований по списку Id вещей")
+    void getNextBookings() {
+        List<Booking> bookings = bookingRepository.getNextBookings(List.of(1L), LocalDateTime.now());
 
+        assertEquals(bookings.size(), 1);
+        assertEquals(bookings.get(0).getId(), 3L);
+    }
+
+    @Test
+    @DisplayName("Тестирование постраничного получения бронирований по курсору")
+    void findAllByCursor() {
+        Slice<BookingDtoOut> firstPage = bookingRepository.findAllByCursor(
+                filter(1L, BookingFilter.Role.BOOKER, BookingState.ALL), null, 2);
+
+        assertEquals(firstPage.getContent().size(), 2);
+        assertTrue(firstPage.hasNext());
+        assertEquals(firstPage.getContent().get(0).getId(), 3L);
+
+        BookingDtoOut last = firstPage.getContent().get(1);
+        Slice<BookingDtoOut> secondPage = bookingRepository.findAllByCursor(
+                filter(1L, BookingFilter.Role.BOOKER, BookingState.ALL), new BookingCursor(last.getStart(), last.getId()), 2);
+
+        assertEquals(secondPage.getContent().size(), 1);
+        assertFalse(secondPage.hasNext());
+        assertEquals(secondPage.getContent().get(0).getId(), 2L);
+    }
+
+    @Test
+    @DisplayName("Тестирование получения бронирований вещи за период")
+    void findAllByItemIdAndPeriod() {
+        BookingFilter filter = BookingFilter.builder()
+                .userId(2L)
+                .role(BookingFilter.Role.OWNER)
+                .state(BookingState.ALL)
+                .currentTime(LocalDateTime.now())
+                .itemId(1L)
+                .startFrom(LocalDateTime.now().minusHours(2L))
+                .build();
+
+        Slice<BookingDtoOut> bookings = bookingRepository.findAll(filter, PageRequest.of(0, 10));
+
+        assertEquals(bookings.getContent().size(), 2);
+        assertEquals(bookings.getContent().get(0).getId(), 3L);
+    }
+
+    @Test
+    @DisplayName("Тестирование количества SQL-запросов при получении списка бронирований")
+    void findAll_executesSingleStatement() {
+        testEntityManager.clear();
+        Statistics statistics = testEntityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        bookingRepository.findAll(filter(2L, BookingFilter.Role.OWNER, BookingState.ALL), PageRequest.of(0, 10));
+
+        assertEquals(1L, statistics.getPrepareStatementCount());
+        assertEquals(0L, statistics.getEntityLoadCount());
+    }
+
+    private BookingFilter filter(Long userId, BookingFilter.Role role, BookingState state) {
+        return BookingFilter.of(userId, role, state);
+    }
+}
@@ -8,12 +8,15 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.transaction.annotation.Transactional;
 
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoOut;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.exceptions.NotFoundException;
+import ru.practicum.shareit.exceptions.ValidationException;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.user.dto.UserDto;
@@ -24,6 +27,8 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 
 @Transactional
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
@@ -83,9 +88,9 @@ public class BookingServiceIT {
         assertEquals(BookingStatus.WAITING, bookingDtoOut2.getStatus());
 
         BookingDtoOut updatedBookingDto1 = bookingService.update(addedUser2.getId(),
-                bookingDtoOut1.getId(), true);
+                bookingDtoOut1.getId(), true, null);
         BookingDtoOut updatedBookingDto2 = bookingService.update(addedUser2.getId(),
-                bookingDtoOut2.getId(), true);
+                bookingDtoOut2.getId(), true, null);
 
         assertEquals(BookingStatus.APPROVED, updatedBookingDto1.getStatus());
         assertEquals(BookingStatus.APPROVED, updatedBookingDto2.getStatus());
@@ -104,6 +109,105 @@ public class BookingServiceIT {
 
         Assertions
                 .assertThrows(NotFoundException.class,
-                        () -> bookingService.update(userId, bookingId, true));
+                        () -> bookingService.update(userId, bookingId, true, null));
+    }
+
+    @Test
+    @DisplayName("Интеграционное тестирование повторного одобрения бронирования")
+    void update_whenStatusAlreadyChanged_thenThrowValidationException() {
+        UserDto addedUser1 = userService.add(userDto1);
+        UserDto addedUser2 = userService.add(userDto2);
+        itemService.create(addedUser1.getId(), itemDto1);
+        itemService.create(addedUser2.getId(), itemDto2);
+        BookingDtoOut bookingDtoOut = bookingService.add(addedUser1.getId(), bookingDto1);
+        bookingService.update(addedUser2.getId(), bookingDtoOut.getId(), true, null);
+
+        Assertions
+                .assertThrows(ValidationException.class,
+                        () -> bookingService.update(addedUser2.getId(), bookingDtoOut.getId(), true, null));
+        Assertions
+                .assertThrows(ValidationException.class,
+                        () -> bookingService.update(addedUser2.getId(), bookingDtoOut.getId(), true, "key"));
+        Assertions
+                .assertThrows(ValidationException.class,
+                        () -> bookingService.update(addedUser2.getId(), bookingDtoOut.getId(), false, "key"));
+    }
+
+    @Test
+    @DisplayName("Интеграционное тестирование повтора одобрения бронирования с ключом идемпотентности")
+    void update_whenRetriedWithIdempotencyKey_thenReturnBooking() {
+        UserDto addedUser1 = userService.add(userDto1);
+        UserDto addedUser2 = userService.add(userDto2);
+        itemService.create(addedUser1.getId(), itemDto1);
+        itemService.create(addedUser2.getId(), itemDto2);
+        BookingDtoOut bookingDtoOut = bookingService.add(addedUser1.getId(), bookingDto1);
+
+        BookingDtoOut first = bookingService.update(addedUser2.getId(), bookingDtoOut.getId(), true, "key");
+        BookingDtoOut retried = bookingService.update(addedUser2.getId(), bookingDtoOut.getId(), true, "key");
+
+        assertEquals(BookingStatus.APPROVED, first.getStatus());
+        assertEquals(first, retried);
+    }
+
+    @Test
+    @DisplayName("Интеграционное тестирование повтора одобрения бронирования с другим ключом идемпотентности")
+    void update_whenRetriedWithAnotherIdempotencyKey_thenThrowValidationException() {
+        UserDto addedUser1 = userService.add(userDto1);
+        UserDto addedUser2 = userService.add(userDto2);
+        itemService.create(addedUser1.getId(), itemDto1);
+        itemService.create(addedUser2.getId(), itemDto2);
+        BookingDtoOut bookingDtoOut = bookingService.add(addedUser1.getId(), bookingDto1);
+        bookingService.update(addedUser2.getId(), bookingDtoOut.getId(), true, "key");
+
+        Assertions
+                .assertThrows(ValidationException.class,
+                        () -> bookingService.update(addedUser2.getId(), bookingDtoOut.getId(), true, "another"));
+    }
+
+    @Test
+    @DisplayName("Интеграционное тестирование пакетного одобрения бронирований")
+    void updateAll_whenDecisionsMixed_thenReturnResultPerBooking() {
+        UserDto addedUser1 = userService.add(userDto1);
+        UserDto addedUser2 = userService.add(userDto2);
+        itemService.create(addedUser1.getId(), itemDto1);
+        itemService.create(addedUser2.getId(), itemDto2);
+        BookingDtoOut bookingDtoOut1 = bookingService.add(addedUser1.getId(), bookingDto1);
+        BookingDtoOut bookingDtoOut2 = bookingService.add(addedUser1.getId(), bookingDto1);
+        BookingDtoOut bookingDtoOut3 = bookingService.add(addedUser1.getId(), bookingDto1);
+        bookingService.update(addedUser2.getId(), bookingDtoOut3.getId(), true, null);
+
+        List<BookingDecisionResultDto> results = bookingService.updateAll(addedUser2.getId(), List.of(
+                new BookingDecisionDto(bookingDtoOut1.getId(), true),
+                new BookingDecisionDto(bookingDtoOut2.getId(), false),
+                new BookingDecisionDto(bookingDtoOut3.getId(), false),
+                new BookingDecisionDto(99L, true)));
+
+        assertEquals(4, results.size());
+        assertEquals(BookingStatus.APPROVED, results.get(0).getStatus());
+        assertNull(results.get(0).getError());
+        assertEquals(BookingStatus.REJECTED, results.get(1).getStatus());
+        assertEquals(BookingStatus.APPROVED, results.get(2).getStatus());
+        assertNotNull(results.get(2).getError());
+        assertNull(results.get(3).getStatus());
+        assertNotNull(results.get(3).getError());
+        assertEquals(BookingStatus.REJECTED,
+                bookingService.getBookingById(addedUser2.getId(), bookingDtoOut2.getId()).getStatus());
+    }
+
+    @Test
+    @DisplayName("Интеграционное тестирование пакетного одобрения чужих бронирований")
+    void updateAll_whenUserIsNotOwner_thenReturnErrors() {
+        UserDto addedUser1 = userService.add(userDto1);
+        UserDto addedUser2 = userService.add(userDto2);
+        itemService.create(addedUser1.getId(), itemDto1);
+        itemService.create(addedUser2.getId(), itemDto2);
+        BookingDtoOut bookingDtoOut = bookingService.add(addedUser1.getId(), bookingDto1);
+
+        List<BookingDecisionResultDto> results = bookingService.updateAll(addedUser1.getId(),
+                List.of(new BookingDecisionDto(bookingDtoOut.getId(), true)));
+
+        assertNotNull(results.get(0).getError());
+        assertEquals(BookingStatus.WAITING,
+                bookingService.getBookingById(addedUser1.getId(), bookingDtoOut.getId()).getStatus());
     }
 }
@@ -69,4 +69,13 @@ class CommentRepositoryTest {
         assertEquals(comments.size(), 1);
         assertEquals(comments.get(0).getText(), "comment");
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Тестирование получения комментариев по списку Id вещей")
+    void findAllByItemIdIn() {
+        List<Comment> comments = commentRepository.findAllByItemIdIn(List.of(1L, 2L));
+
+        assertEquals(comments.size(), 1);
+        assertEquals(comments.get(0).getAuthor().getName(), user.getName());
+    }
+}
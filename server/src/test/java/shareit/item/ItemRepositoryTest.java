@@ -63,4 +63,21 @@ class ItemRepositoryTest {
         assertEquals(items.size(), 1);
         assertEquals(items.get(0).getName(), "name");
     }
+
+    @Test
+    @DisplayName("Тестирование поиска доступных вещей по тексту")
+    void search() {
+        List<Item> items = itemRepository.search("DESCR", PageRequest.of(0, 10));
+
+        assertEquals(items.size(), 1);
+        assertEquals(items.get(0).getName(), "name");
+    }
+
+    @Test
+    @DisplayName("Тестирование поиска без совпадений")
+    void search_whenNothingMatches_thenReturnEmptyList() {
+        List<Item> items = itemRepository.search("nothing", PageRequest.of(0, 10));
+
+        assertEquals(items.size(), 0);
+    }
 }
\ No newline at end of file
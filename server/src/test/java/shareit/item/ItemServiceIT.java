@@ -20,6 +20,9 @@ import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -113,7 +116,7 @@ public class ItemServiceIT {
         ItemDto addedItem = itemService.create(addedUser2.getId(), itemDto2);
         BookingDtoOut bookingDtoOut = bookingService.add(addedUser1.getId(), bookingDto);
 
-        bookingService.update(addedUser2.getId(), bookingDtoOut.getId(), true);
+        bookingService.update(addedUser2.getId(), bookingDtoOut.getId(), true, null);
         Thread.sleep(12000);
         CommentDto addedComment = itemService.createComment(addedUser1.getId(), commentDto, addedItem.getId());
 
@@ -130,4 +133,24 @@ public class ItemServiceIT {
                 .assertThrows(RuntimeException.class,
                         () -> itemService.getItemById(userDto1.getId(), itemId));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Интеграционное тестирование пакетного создания вещей")
+    void createAll_whenItemsExceedBatchSize_thenCreateAll() {
+        UserDto addedUser = userService.add(userDto1);
+        List<ItemDto> itemDtos = IntStream.range(0, 120)
+                .mapToObj(i -> ItemDto.builder()
+                        .name("item " + i)
+                        .description("description " + i)
+                        .available(true)
+                        .build())
+                .collect(Collectors.toList());
+
+        List<ItemDto> created = itemService.createAll(addedUser.getId(), itemDtos);
+
+        assertEquals(120, created.size());
+        assertEquals(120, created.stream().map(ItemDto::getId).distinct().count());
+        assertEquals("item 119", created.get(119).getName());
+        assertEquals(120, itemService.getAll(addedUser.getId(), 0, 200).size());
+    }
+}
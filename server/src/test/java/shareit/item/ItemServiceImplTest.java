@@ -7,10 +7,14 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Page;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
@@ -25,6 +29,7 @@ import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.item.service.ItemServiceImpl;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
@@ -36,6 +41,7 @@ import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.*;
 
@@ -55,6 +61,9 @@ class ItemServiceImplTest {
     @Mock
     private UserService userService;
 
+    @Spy
+    private CacheManager cacheManager = new ConcurrentMapCacheManager();
+
     @InjectMocks
     private ItemServiceImpl itemService;
 
@@ -239,7 +248,6 @@ class ItemServiceImplTest {
     @Test
     @DisplayName("Тестирование получения вещи по Id")
     void getItemById() {
-        when(userService.getUserById(user.getId())).thenReturn(userDto);
         when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
 
         ItemDto actualItemDto = itemService.getItemById(user.getId(), item.getId());
@@ -247,6 +255,92 @@ class ItemServiceImplTest {
         assertEquals(itemDto, actualItemDto);
     }
 
+    @Test
+    @DisplayName("Тестирование повторного получения вещи по Id из кеша")
+    void getItemById_whenCalledTwice_thenDetailsLoadedOnce() {
+        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
+
+        ItemDto first = itemService.getItemById(user2.getId(), item.getId());
+        ItemDto second = itemService.getItemById(user2.getId(), item.getId());
+
+        assertEquals(first, second);
+        verify(commentRepository, times(1)).findAllByItemId(item.getId());
+    }
+
+    @Test
+    @DisplayName("Тестирование сброса кеша вещи")
+    void getItemById_whenEvicted_thenDetailsReloaded() {
+        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
+
+        itemService.getItemById(user2.getId(), item.getId());
+        itemService.evictItemDetails(item.getId());
+        itemService.getItemById(user2.getId(), item.getId());
+
+        verify(commentRepository, times(2)).findAllByItemId(item.getId());
+    }
+
+    @Test
+    @DisplayName("Тестирование ETag вещи: считается по версии из БД без загрузки вещи")
+    void getETag_whenVersionChanges_thenETagChanges() {
+        when(itemRepository.findItemVersion(eq(item.getId()), any(LocalDateTime.class)))
+                .thenReturn(Optional.of("v1"), Optional.of("v2"));
+
+        String before = itemService.getETag(user.getId(), item.getId());
+        String after = itemService.getETag(user.getId(), item.getId());
+
+        assertNotEquals(before, after);
+        verify(itemRepository, never()).findById(item.getId());
+    }
+
+    @Test
+    @DisplayName("Тестирование ETag несуществующей вещи")
+    void getETag_whenItemNotFound_thenThrowNotFoundException() {
+        when(itemRepository.findItemVersion(eq(item.getId()), any(LocalDateTime.class))).thenReturn(Optional.empty());
+
+        assertThrows(NotFoundException.class, () -> itemService.getETag(user.getId(), item.getId()));
+    }
+
+    @Test
+    @DisplayName("Тестирование сброса кеша вещи после фиксации транзакции")
+    void evictItemDetails_whenInTransaction_thenEvictedAfterCommit() {
+        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
+        itemService.getItemById(user2.getId(), item.getId());
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            itemService.evictItemDetails(item.getId());
+            itemService.getItemById(user2.getId(), item.getId());
+            verify(commentRepository, times(1)).findAllByItemId(item.getId());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        itemService.getItemById(user2.getId(), item.getId());
+
+        verify(commentRepository, times(2)).findAllByItemId(item.getId());
+    }
+
+    @Test
+    @DisplayName("Тестирование получения всех вещей владельца")
+    void getAllItems() {
+        when(itemRepository.findAllByOwnerIdOrderByIdAsc(anyLong(), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(item)));
+        when(bookingRepository.getLastBookings(anyCollection(), any(LocalDateTime.class)))
+                .thenReturn(List.of(lastBooking));
+        when(bookingRepository.getNextBookings(anyCollection(), any(LocalDateTime.class)))
+                .thenReturn(List.of(nextBooking));
+        when(commentRepository.findAllByItemIdIn(anyCollection())).thenReturn(List.of(comment));
+
+        List<ItemDto> actualItemsDto = itemService.getAll(user.getId(), 0, 10);
+
+        assertEquals(1, actualItemsDto.size());
+        assertEquals(lastBooking.getId(), actualItemsDto.get(0).getLastBooking().getId());
+        assertEquals(nextBooking.getId(), actualItemsDto.get(0).getNextBooking().getId());
+        assertEquals(1, actualItemsDto.get(0).getComments().size());
+        verify(bookingRepository, never()).getLastBooking(anyLong(), any(LocalDateTime.class));
+    }
+
     @Test
     @DisplayName("Тестирование получения всех комментариев")
     void getAllComments() {
@@ -262,9 +356,7 @@ class ItemServiceImplTest {
     @Test
     @DisplayName("Тестирование поиска вещи")
     void searchItems() {
-        when(userService.getUserById(user.getId())).thenReturn(userDto);
-        Page<Item> items = new PageImpl<>(List.of(item));
-        when(itemRepository.findAll(any(Pageable.class))).thenReturn(items);
+        when(itemRepository.search(eq("item"), any(Pageable.class))).thenReturn(List.of(item));
 
         List<ItemDto> actualItemsDto = itemService.search(user.getId(), "item", 0, 10);
 
@@ -273,6 +365,27 @@ class ItemServiceImplTest {
         assertEquals("item name", actualItemsDto.get(0).getName());
     }
 
+    @Test
+    @DisplayName("Тестирование поиска вещи по тексту со спецсимволами LIKE")
+    void searchItems_whenTextHasLikeWildcards_thenEscaped() {
+        when(itemRepository.search(eq("100\\%\\_off\\\\"), any(Pageable.class))).thenReturn(List.of());
+
+        List<ItemDto> actualItemsDto = itemService.search(user.getId(), "100%_off\\", 0, 10);
+
+        assertEquals(0, actualItemsDto.size());
+        verify(itemRepository).search(eq("100\\%\\_off\\\\"), any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Тестирование поиска вещи со смещением, не кратным размеру страницы")
+    void searchItems_whenFromIsNotPageAligned_thenOffsetIsKept() {
+        when(itemRepository.search(eq("item"), any(Pageable.class))).thenReturn(List.of());
+
+        itemService.search(user.getId(), "item", 5, 10);
+
+        verify(itemRepository).search("item", OffsetPageRequest.of(5, 10));
+    }
+
     @Test
     @DisplayName("Тестирование добавления комментария")
     void createComment() {
@@ -0,0 +1,152 @@
+package shareit.postgres;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exceptions.ConflictException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.mockito.Mockito.doReturn;
+
+/**
+ * Проверяет защиту от двойного бронирования на PostgreSQL: пересечение периодов ловит
+ * ограничение bookings_item_period_excl, а не проверка в коде перед вставкой.
+ */
+@SpringBootTest(classes = ShareItServer.class, webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@DirtiesContext
+public class BookingConcurrencyIT {
+
+    private static final int BOOKERS = 32;
+
+    private static final String FOREIGN_KEY_VIOLATION_SQL_STATE = "23503";
+
+    private static final EmbeddedPostgres POSTGRES = EmbeddedPostgresSupport.start();
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @SpyBean
+    private UserService userService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) {
+        EmbeddedPostgresSupport.register(registry, POSTGRES);
+    }
+
+    @AfterAll
+    static void stopPostgres() throws Exception {
+        POSTGRES.close();
+    }
+
+    @Test
+    @DisplayName("Из параллельных броней одной вещи на один период проходит ровно одна")
+    void add_whenBookedConcurrently_thenExactlyOneSucceeds() throws Exception {
+        UserDto owner = userService.add(UserDto.builder().name("owner").email("owner@race.test").build());
+        ItemDto item = createItem(owner);
+        List<UserDto> bookers = new ArrayList<>();
+        for (int i = 0; i < BOOKERS; i++) {
+            bookers.add(userService.add(UserDto.builder().name("booker" + i).email("booker" + i + "@race.test")
+                    .build()));
+        }
+        BookingDto bookingDto = BookingDto.builder()
+                .itemId(item.getId())
+                .start(LocalDateTime.now().plusDays(1L))
+                .end(LocalDateTime.now().plusDays(2L))
+                .build();
+
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(BOOKERS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (UserDto booker : bookers) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        bookingService.add(booker.getId(), bookingDto);
+                        created.incrementAndGet();
+                    } catch (ConflictException e) {
+                        conflicts.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, created.get());
+        assertEquals(BOOKERS - 1, conflicts.get());
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM bookings WHERE item_id = ?",
+                Integer.class, item.getId()));
+    }
+
+    @Test
+    @DisplayName("Нарушение внешнего ключа при бронировании не превращается в конфликт")
+    void add_whenForeignKeyViolated_thenNotConflict() {
+        UserDto owner = userService.add(UserDto.builder().name("owner").email("fk-owner@race.test").build());
+        ItemDto item = createItem(owner);
+        // Пользователь проходит проверку существования, но строки в users нет: вставка брони нарушит FK.
+        long missingUserId = 1_000_000L;
+        doReturn(UserDto.builder().id(missingUserId).name("ghost").email("ghost@race.test").build())
+                .when(userService).getUserById(missingUserId);
+        BookingDto bookingDto = BookingDto.builder()
+                .itemId(item.getId())
+                .start(LocalDateTime.now().plusDays(1L))
+                .end(LocalDateTime.now().plusDays(2L))
+                .build();
+
+        DataIntegrityViolationException exception = assertThrows(DataIntegrityViolationException.class,
+                () -> bookingService.add(missingUserId, bookingDto));
+        assertInstanceOf(ConstraintViolationException.class, exception.getCause());
+        assertEquals(FOREIGN_KEY_VIOLATION_SQL_STATE, ((ConstraintViolationException) exception.getCause()).getSQLState());
+    }
+
+    private ItemDto createItem(UserDto owner) {
+        return itemService.create(owner.getId(), ItemDto.builder()
+                .name("item name")
+                .description("item description")
+                .available(true)
+                .build());
+    }
+}
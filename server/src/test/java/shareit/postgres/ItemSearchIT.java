@@ -0,0 +1,87 @@
+package shareit.postgres;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Поиск вещей на PostgreSQL: ранжирование по триграммному сходству и смещение from, не кратное size.
+ */
+@Transactional
+@SpringBootTest(classes = ShareItServer.class, webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@DirtiesContext
+public class ItemSearchIT {
+
+    private static final EmbeddedPostgres POSTGRES = EmbeddedPostgresSupport.start();
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private UserService userService;
+
+    private Long userId;
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) {
+        EmbeddedPostgresSupport.register(registry, POSTGRES);
+    }
+
+    @AfterAll
+    static void stopPostgres() throws Exception {
+        POSTGRES.close();
+    }
+
+    @BeforeEach
+    void init() {
+        userId = userService.add(UserDto.builder().name("owner").email("owner@search.test").build()).getId();
+        // Порядок создания не совпадает с ожидаемым порядком выдачи, чтобы сортировка по id его не дала.
+        createItem("Screwdriver", "Works like a drill");
+        createItem("Cordless drill Makita", "Two batteries");
+        createItem("Drill", "Hammer drill");
+    }
+
+    @Test
+    @DisplayName("Совпадения по названию идут первыми и упорядочены по сходству с текстом")
+    void search_whenPostgreSql_thenRankedBySimilarity() {
+        assertEquals(List.of("Drill", "Cordless drill Makita", "Screwdriver"), names(itemService.search(userId, "drill", 0, 10)));
+    }
+
+    @Test
+    @DisplayName("Смещение from не округляется до границы страницы")
+    void search_whenFromIsNotPageAligned_thenOffsetIsKept() {
+        assertEquals(List.of("Cordless drill Makita", "Screwdriver"), names(itemService.search(userId, "drill", 1, 2)));
+    }
+
+    private void createItem(String name, String description) {
+        itemService.create(userId, ItemDto.builder()
+                .name(name)
+                .description(description)
+                .available(true)
+                .build());
+    }
+
+    private static List<String> names(List<ItemDto> items) {
+        return items.stream()
+                .map(ItemDto::getName)
+                .collect(Collectors.toList());
+    }
+}
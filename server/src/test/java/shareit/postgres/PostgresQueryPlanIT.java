@@ -0,0 +1,282 @@
+package shareit.postgres;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.function.Executable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.booking.model.BookingCursor;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingFilter;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.repository.RequestRepository;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Проверяет планы запросов репозиториев на PostgreSQL со схемой из миграций Flyway и заполненными таблицами.
+ * Каждый SQL, который Hibernate отправляет в базу, готовится как PREPARE и разбирается через
+ * EXPLAIN (FORMAT JSON) с обобщённым планом, то есть так, как его исполнит пул соединений
+ * после нескольких повторов. Последовательное сканирование bookings, items или comments — ошибка.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@SpringBootTest(classes = ShareItServer.class, webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@DirtiesContext
+public class PostgresQueryPlanIT {
+
+    private static final Set<String> INDEXED_TABLES = Set.of("bookings", "items", "comments");
+
+    private static final int USERS = 1_000;
+    private static final int ITEMS = 20_000;
+    private static final int REQUESTS = 2_000;
+    private static final int BOOKINGS = 100_000;
+    private static final int COMMENTS = 20_000;
+
+    private static final EmbeddedPostgres POSTGRES = EmbeddedPostgresSupport.start();
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private RequestRepository requestRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) {
+        EmbeddedPostgresSupport.register(registry, POSTGRES);
+        registry.add("spring.jpa.properties.hibernate.session_factory.statement_inspector",
+                CapturingStatementInspector.class::getName);
+    }
+
+    @BeforeAll
+    void seed() {
+        jdbcTemplate.update("INSERT INTO users (id, name, email) " +
+                "SELECT g, 'user ' || g, 'user' || g || '@plan.test' FROM generate_series(1, ?) g", USERS);
+        jdbcTemplate.update("INSERT INTO requests (id, description, requester_id, created) " +
+                "SELECT g, 'request ' || g, g % ? + 1, now() - g * interval '1 minute' " +
+                "FROM generate_series(1, ?) g", USERS, REQUESTS);
+        jdbcTemplate.update("INSERT INTO items (id, name, description, available, owner_id, request_id) " +
+                "SELECT g, 'item ' || g, 'description ' || g, true, g % ? + 1, " +
+                "CASE WHEN g % 10 = 0 THEN g / 10 END " +
+                "FROM generate_series(1, ?) g", USERS, ITEMS);
+        // У каждой вещи брони идут друг за другом через три дня и не пересекаются.
+        jdbcTemplate.update("INSERT INTO bookings (id, start_date, end_date, item_id, booker_id, status) " +
+                "SELECT g, timestamp '2024-01-01' + (g / ?) * interval '3 days', " +
+                "timestamp '2024-01-02' + (g / ?) * interval '3 days', g % ? + 1, g * 7 % ? + 1, " +
+                "(ARRAY['WAITING', 'APPROVED', 'REJECTED', 'CANCELED'])[g % 4 + 1] " +
+                "FROM generate_series(1, ?) g", ITEMS, ITEMS, ITEMS, USERS, BOOKINGS);
+        jdbcTemplate.update("INSERT INTO comments (id, text, item_id, author_id, created) " +
+                "SELECT g, 'comment ' || g, g % ? + 1, g % ? + 1, now() " +
+                "FROM generate_series(1, ?) g", ITEMS, USERS, COMMENTS);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @AfterAll
+    static void stopPostgres() throws Exception {
+        POSTGRES.close();
+    }
+
+    @Test
+    @DisplayName("Запросы BookingRepository используют индексы")
+    void bookingRepository() {
+        LocalDateTime now = LocalDateTime.of(2024, 1, 7, 12, 0);
+        List<Executable> checks = new ArrayList<>(List.of(
+                () -> assertIndexed("findById", () -> bookingRepository.findById(1L)),
+                () -> assertIndexed("findAllByIdInAndOwnerId",
+                        () -> bookingRepository.findAllByIdInAndOwnerId(List.of(1L, 2L, 3L), 1L)),
+                () -> assertIndexed("updateStatusIfWaiting", () -> transactionTemplate.execute(status -> {
+                    status.setRollbackOnly();
+                    return bookingRepository.updateStatusIfWaiting(1L, 1L, BookingStatus.APPROVED, "plan");
+                })),
+                () -> assertIndexed("getLastBooking", () -> bookingRepository.getLastBooking(1L, now)),
+                () -> assertIndexed("getNextBooking", () -> bookingRepository.getNextBooking(1L, now)),
+                () -> assertIndexed("getLastBookings",
+                        () -> bookingRepository.getLastBookings(List.of(1L, 2L, 3L), now)),
+                () -> assertIndexed("getNextBookings",
+                        () -> bookingRepository.getNextBookings(List.of(1L, 2L, 3L), now)),
+                () -> assertIndexed("findAllByUserBookings",
+                        () -> bookingRepository.findAllByUserBookings(1L, 1L, now))
+        ));
+        for (BookingFilter.Role role : BookingFilter.Role.values()) {
+            for (BookingState state : BookingState.values()) {
+                BookingFilter filter = BookingFilter.builder()
+                        .userId(1L)
+                        .role(role)
+                        .state(state)
+                        .currentTime(now)
+                        .build();
+                checks.add(() -> assertIndexed("findAll " + role + " " + state,
+                        () -> bookingRepository.findAll(filter, PageRequest.of(1, 10))));
+                checks.add(() -> assertIndexed("findAllByCursor " + role + " " + state,
+                        () -> bookingRepository.findAllByCursor(filter, new BookingCursor(now, 1L), 10)));
+            }
+        }
+        assertAll(checks);
+    }
+
+    @Test
+    @DisplayName("Запросы CommentRepository используют индексы")
+    void commentRepository() {
+        assertAll(
+                () -> assertIndexed("findAllByItemId", () -> commentRepository.findAllByItemId(1L)),
+                () -> assertIndexed("findAllByItemIdIn",
+                        () -> commentRepository.findAllByItemIdIn(List.of(1L, 2L, 3L)))
+        );
+    }
+
+    @Test
+    @DisplayName("Запросы RequestRepository используют индексы")
+    void requestRepository() {
+        assertAll(
+                () -> assertIndexed("findById", () -> requestRepository.findById(10L)),
+                () -> assertIndexed("findAllByRequesterIdOrderByCreatedDesc",
+                        () -> requestRepository.findAllByRequesterIdOrderByCreatedDesc(1L, PageRequest.of(0, 10))),
+                () -> assertIndexed("findAllByRequester_IdNotOrderByCreatedDesc",
+                        () -> requestRepository.findAllByRequester_IdNotOrderByCreatedDesc(1L,
+                                PageRequest.of(0, 10))),
+                () -> assertIndexed("findIdsByRequesterId",
+                        () -> requestRepository.findIdsByRequesterId(1L, PageRequest.of(0, 10))),
+                () -> assertIndexed("findIdsByRequesterIdNot",
+                        () -> requestRepository.findIdsByRequesterIdNot(1L, PageRequest.of(0, 10))),
+                () -> assertIndexed("findAnswersVersion",
+                        () -> requestRepository.findAnswersVersion(List.of(1L, 2L, 3L)))
+        );
+    }
+
+    @Test
+    @DisplayName("Список вещей владельца использует индекс")
+    void itemRepositoryFindAllByOwner() throws Exception {
+        assertIndexed("findAllByOwnerIdOrderByIdAsc",
+                () -> itemRepository.findAllByOwnerIdOrderByIdAsc(1L, PageRequest.of(1, 10)));
+    }
+
+    private void assertIndexed(String name, Runnable query) throws SQLException, JsonProcessingException {
+        CapturingStatementInspector.STATEMENTS.clear();
+        query.run();
+        List<String> statements = new ArrayList<>(CapturingStatementInspector.STATEMENTS);
+        assertFalse(statements.isEmpty(), name + ": запрос не выполнил ни одного SQL");
+
+        for (String sql : statements) {
+            JsonNode plan = explain(sql);
+            List<String> seqScans = new ArrayList<>();
+            collectSeqScans(plan, seqScans);
+            assertTrue(seqScans.isEmpty(), String.format("%s: последовательное сканирование %s%nSQL: %s%nПлан: %s",
+                    name, seqScans, sql, plan.toPrettyString()));
+        }
+    }
+
+    /**
+     * Строит обобщённый план, не зависящий от значений параметров: именно его PostgreSQL
+     * кэширует для подготовленных запросов JDBC-драйвера.
+     */
+    private JsonNode explain(String sql) throws SQLException, JsonProcessingException {
+        int parameters = 0;
+        StringBuilder prepared = new StringBuilder();
+        for (char c : sql.toCharArray()) {
+            if (c == '?') {
+                prepared.append('$').append(++parameters);
+            } else {
+                prepared.append(c);
+            }
+        }
+        String arguments = parameters == 0 ? "" : IntStream.range(0, parameters)
+                .mapToObj(i -> "NULL")
+                .collect(Collectors.joining(", ", "(", ")"));
+
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("SET plan_cache_mode = force_generic_plan");
+            statement.execute("PREPARE plan_check AS " + prepared);
+            try (ResultSet resultSet = statement.executeQuery("EXPLAIN (FORMAT JSON) EXECUTE plan_check" + arguments)) {
+                resultSet.next();
+                return objectMapper.readTree(resultSet.getString(1));
+            } finally {
+                statement.execute("DEALLOCATE plan_check");
+                statement.execute("RESET plan_cache_mode");
+            }
+        }
+    }
+
+    private void collectSeqScans(JsonNode node, List<String> seqScans) {
+        if (node.isArray()) {
+            node.forEach(child -> collectSeqScans(child, seqScans));
+            return;
+        }
+        if (!node.isObject()) {
+            return;
+        }
+        String relation = node.path("Relation Name").asText();
+        if ("Seq Scan".equals(node.path("Node Type").asText()) && INDEXED_TABLES.contains(relation)) {
+            seqScans.add(relation);
+        }
+        Stream.of("Plan", "Plans")
+                .map(node::get)
+                .filter(Objects::nonNull)
+                .forEach(child -> collectSeqScans(child, seqScans));
+    }
+
+    /**
+     * Запоминает SQL, подготовленные Hibernate, чтобы разобрать их планы.
+     */
+    public static class CapturingStatementInspector implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
@@ -72,7 +72,7 @@ class ItemRequestControllerTest {
     @SneakyThrows
     @DisplayName("Тестирование эндпоинта get /requests")
     void getUserRequests() {
-        when(requestService.getUserRequests(user.getId())).thenReturn(List.of(requestDto));
+        when(requestService.getUserRequests(user.getId(), 0, 10)).thenReturn(List.of(requestDto));
 
         String result = mockMvc.perform(MockMvcRequestBuilders.get("/requests")
                         .characterEncoding(StandardCharsets.UTF_8)
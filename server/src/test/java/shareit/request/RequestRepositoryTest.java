@@ -6,6 +6,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.annotation.DirtiesContext;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.model.ItemRequest;
@@ -72,7 +73,7 @@ class RequestRepositoryTest {
     @Test
     @DisplayName("Тестирование получения запросов по Id пользователя")
     void findAllByRequesterIdOrderByCreated() {
-        List<ItemRequest> requests = requestRepository.findAllByRequesterId(1L);
+        List<ItemRequest> requests = requestRepository.findAllByRequesterIdOrderByCreatedDesc(1L, PageRequest.of(0, 10));
 
         assertEquals(requests.size(), 1);
         assertEquals(requests.get(0).getDescription(), "request description");
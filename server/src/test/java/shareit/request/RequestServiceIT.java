@@ -43,7 +43,7 @@ public class RequestServiceIT {
         UserDto addedUser = userService.add(userDto);
         requestService.add(addedUser.getId(), requestDto);
 
-        List<ItemRequestDto> actualRequests = requestService.getUserRequests(addedUser.getId());
+        List<ItemRequestDto> actualRequests = requestService.getUserRequests(addedUser.getId(), 0, 10);
 
         assertEquals(1L, actualRequests.get(0).getId());
         assertEquals("request description", actualRequests.get(0).getDescription());
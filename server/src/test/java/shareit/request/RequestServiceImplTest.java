@@ -9,6 +9,7 @@ import org.springframework.data.domain.PageRequest;
 import org.mockito.junit.jupiter.MockitoExtension;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.RequestMapping;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.model.ItemRequest;
@@ -22,9 +23,12 @@ import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -33,6 +37,9 @@ class RequestServiceImplTest {
     @Mock
     private RequestRepository requestRepository;
 
+    @Mock
+    private ItemRepository itemRepository;
+
     @Mock
     private UserService userService;
 
@@ -80,11 +87,12 @@ class RequestServiceImplTest {
     @Test
     @DisplayName("Тестирование получения запросов пользователя")
     void getUserRequests() {
-        List<ItemRequestDto> expectedRequestsDto = List.of(RequestMapping.toRequestDto(request));
-        when(userService.getUserById(user.getId())).thenReturn(userDto);
-        when(requestRepository.findAllByRequesterId(userDto.getId())).thenReturn(List.of(request));
+        List<ItemRequestDto> expectedRequestsDto = List.of(RequestMapping.toRequestDto(request, List.of(requestItem())));
+        when(requestRepository.findAllByRequesterIdOrderByCreatedDesc(anyLong(), any(PageRequest.class)))
+                .thenReturn(List.of(request));
+        when(itemRepository.findAllByItemRequestIdIn(List.of(request.getId()))).thenReturn(List.of(requestItem()));
 
-        List<ItemRequestDto> actualRequestsDto = requestService.getUserRequests(userDto.getId());
+        List<ItemRequestDto> actualRequestsDto = requestService.getUserRequests(userDto.getId(), 0, 10);
 
         assertEquals(expectedRequestsDto, actualRequestsDto);
     }
@@ -92,10 +100,10 @@ class RequestServiceImplTest {
     @Test
     @DisplayName("Тестирование получения всех запросов")
     void getAllRequests() {
-        List<ItemRequestDto> expectedRequestsDto = List.of(RequestMapping.toRequestDto(request));
-        when(userService.getUserById(user.getId())).thenReturn(userDto);
+        List<ItemRequestDto> expectedRequestsDto = List.of(RequestMapping.toRequestDto(request, List.of(requestItem())));
         when(requestRepository.findAllByRequester_IdNotOrderByCreatedDesc(anyLong(), any(PageRequest.class)))
                 .thenReturn(List.of( request));
+        when(itemRepository.findAllByItemRequestIdIn(List.of(request.getId()))).thenReturn(List.of(requestItem()));
 
         List<ItemRequestDto> actualRequestsDto = requestService.getAllRequests(userDto.getId(), 0, 10);
 
@@ -106,7 +114,6 @@ class RequestServiceImplTest {
     @DisplayName("Тестирование получения запроса по Id")
     void getRequestById() {
         ItemRequestDto expectedRequestDto = RequestMapping.toRequestDto(request);
-        when(userService.getUserById(user.getId())).thenReturn(userDto);
         when(requestRepository.findById(request.getId())).thenReturn(Optional.of(request));
 
         ItemRequestDto actualRequestDto = requestService.getRequestById(userDto.getId(), request.getId());
@@ -117,7 +124,6 @@ class RequestServiceImplTest {
     @Test
     @DisplayName("Тестирование получения запроса по несуществующему Id")
     void getRequestById_whenRequestIdIsNotValid_thenThrowObjectNotFoundException() {
-        when(userService.getUserById(user.getId())).thenReturn(userDto);
         when(requestRepository.findById(request.getId())).thenReturn(Optional.empty());
 
         NotFoundException requestNotFoundException = assertThrows(NotFoundException.class,
@@ -126,4 +132,37 @@ class RequestServiceImplTest {
         assertEquals(requestNotFoundException.getMessage(), String.format("Запрос с id: %s" +
                 " не был найден.", request.getId()));
     }
+
+    @Test
+    @DisplayName("Тестирование ETag своих запросов: меняется вместе с ответами, чужие запросы не читаются")
+    void getUserRequestsETag_whenAnswersChange_thenETagChanges() {
+        when(requestRepository.findIdsByRequesterId(user.getId(), PageRequest.of(0, 10)))
+                .thenReturn(List.of(request.getId()));
+        when(requestRepository.findAnswersVersion(List.of(request.getId()))).thenReturn("0:null", "1:2023-01-01T00:00");
+
+        String before = requestService.getUserRequestsETag(user.getId(), 0, 10);
+        String after = requestService.getUserRequestsETag(user.getId(), 0, 10);
+
+        assertNotEquals(before, after);
+        verify(requestRepository, never()).findIdsByRequesterIdNot(anyLong(), any());
+    }
+
+    @Test
+    @DisplayName("Тестирование ETag запроса по несуществующему id")
+    void getRequestETag_whenRequestNotFound_thenThrowNotFoundException() {
+        when(requestRepository.existsById(request.getId())).thenReturn(false);
+
+        assertThrows(NotFoundException.class, () -> requestService.getRequestETag(user.getId(), request.getId()));
+    }
+
+    private Item requestItem() {
+        return Item.builder()
+                .id(item.getId())
+                .name(item.getName())
+                .description(item.getDescription())
+                .available(item.getAvailable())
+                .owner(user)
+                .itemRequest(ItemRequest.builder().id(request.getId()).build())
+                .build();
+    }
 }
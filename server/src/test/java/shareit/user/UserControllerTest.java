@@ -8,18 +8,24 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import ru.practicum.shareit.user.UserController;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 
@@ -132,13 +138,28 @@ class UserControllerTest {
         verify(userService).getUserById(userId);
     }
 
+    @Test
+    @SneakyThrows
+    @DisplayName("Тестирование получения пользователя по Id с совпадающим ETag")
+    void get_whenETagMatches_thenNotModified() {
+        long userId = 0L;
+        when(userService.getETag(userId)).thenReturn("etag");
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/users/{userId}", userId)
+                        .header("If-None-Match", "\"etag\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"etag\""));
+
+        verify(userService, never()).getUserById(userId);
+    }
+
     @Test
     @SneakyThrows
     @DisplayName("Тестирование получения всех пользоваетлей")
     void getAll() {
         List<UserDto> usersDtoToExpect = List.of(UserDto.builder().name("name").email("email@email.com").build());
 
-        when(userService.getAll()).thenReturn(usersDtoToExpect);
+        when(userService.getAll(0, 10)).thenReturn(usersDtoToExpect);
 
         String result = mockMvc.perform(MockMvcRequestBuilders.get("/users"))
                 .andExpect(status().isOk())
@@ -149,6 +170,35 @@ class UserControllerTest {
         assertEquals(objectMapper.writeValueAsString(usersDtoToExpect), result);
     }
 
+    @Test
+    @SneakyThrows
+    @DisplayName("Тестирование выгрузки всех пользователей построчно")
+    void export() {
+        UserDto first = UserDto.builder().id(1L).name("name").email("email@email.com").build();
+        UserDto second = UserDto.builder().id(2L).name("name2").email("email2@email.com").build();
+
+        doAnswer(invocation -> {
+            Consumer<UserDto> action = invocation.getArgument(0);
+            action.accept(first);
+            action.accept(second);
+            return null;
+        }).when(userService).exportAll(any());
+
+        MvcResult mvcResult = mockMvc.perform(MockMvcRequestBuilders.get("/users/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String result = mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        assertEquals(objectMapper.writeValueAsString(first) + "\n"
+                + objectMapper.writeValueAsString(second) + "\n", result);
+    }
+
     @Test
     @SneakyThrows
     @DisplayName("Тестирование удаления пользователя по Id")
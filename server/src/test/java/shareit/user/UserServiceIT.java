@@ -11,6 +11,9 @@ import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 @Transactional
@@ -43,4 +46,27 @@ public class UserServiceIT {
         Assertions
                 .assertThrows(NotFoundException.class, () -> userService.getUserById(userId));
     }
+
+    @Test
+    @DisplayName("Интеграционное тестирование постраничного получения пользователей")
+    void getAll_whenPaged_thenReturnUsersOrderedById() {
+        UserDto first = userService.add(userDto);
+        UserDto second = userService.add(UserDto.builder().name("name2").email("email2@email.com").build());
+        userService.add(UserDto.builder().name("name3").email("email3@email.com").build());
+
+        assertEquals(List.of(first, second), userService.getAll(0, 2));
+        assertEquals(1, userService.getAll(2, 2).size());
+    }
+
+    @Test
+    @DisplayName("Интеграционное тестирование выгрузки всех пользователей")
+    void exportAll() {
+        UserDto first = userService.add(userDto);
+        UserDto second = userService.add(UserDto.builder().name("name2").email("email2@email.com").build());
+        List<UserDto> exported = new ArrayList<>();
+
+        userService.exportAll(exported::add);
+
+        assertEquals(List.of(first, second), exported);
+    }
 }
@@ -7,7 +7,13 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.hibernate.exception.ConstraintViolationException;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.exceptions.ConflictException;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.user.UserMapper;
 import ru.practicum.shareit.user.dto.UserDto;
@@ -15,11 +21,13 @@ import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 import ru.practicum.shareit.user.service.UserServiceImpl;
 
+import java.sql.SQLException;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.*;
 
@@ -73,11 +81,11 @@ class UserServiceImplTest {
         newUser.setName("name1");
 
         when(userRepository.findById(userId)).thenReturn(Optional.of(newUser));
-        when(userRepository.save(newUser)).thenReturn(newUser);
+        when(userRepository.saveAndFlush(newUser)).thenReturn(newUser);
 
         userService.update(userId, newUserDto);
 
-        verify(userRepository).save(userArgumentCaptor.capture());
+        verify(userRepository).saveAndFlush(userArgumentCaptor.capture());
         User savedUser = userArgumentCaptor.getValue();
 
         assertEquals("@email1", savedUser.getEmail());
@@ -103,17 +111,57 @@ class UserServiceImplTest {
         newUser.setName("name");
 
         when(userRepository.findById(userId)).thenReturn(Optional.of(newUser));
-        when(userRepository.save(newUser)).thenReturn(newUser);
+        when(userRepository.saveAndFlush(newUser)).thenReturn(newUser);
 
         userService.update(userId, newUserDto);
 
-        verify(userRepository).save(userArgumentCaptor.capture());
+        verify(userRepository).saveAndFlush(userArgumentCaptor.capture());
         User savedUser = userArgumentCaptor.getValue();
 
         assertEquals("@email", savedUser.getEmail());
         assertEquals("name", savedUser.getName());
     }
 
+    @Test
+    @DisplayName("Тестирование обновления пользователя с уже занятым email")
+    void updateUser_whenEmailExists_thenThrowConflictException() {
+        Long userId = 0L;
+        User oldUser = User.builder().id(userId).email("old@email.com").name("name").build();
+        UserDto newUserDto = UserDto.builder().email("Taken@email.com").build();
+
+        when(userRepository.findById(userId)).thenReturn(Optional.of(oldUser));
+        when(userRepository.existsByEmailIgnoreCaseAndIdNot("Taken@email.com", userId)).thenReturn(true);
+
+        ConflictException conflictException = assertThrows(ConflictException.class,
+                () -> userService.update(userId, newUserDto));
+
+        assertEquals("Адрес электронной почты уже существует.", conflictException.getMessage());
+        verify(userRepository, never()).saveAndFlush(any(User.class));
+    }
+
+    @Test
+    @DisplayName("Тестирование добавления пользователя при гонке за email")
+    void addUser_whenEmailConstraintViolated_thenThrowConflictException() {
+        User user = User.builder().email("taken@email.com").name("name").build();
+        when(userRepository.save(user)).thenThrow(new DataIntegrityViolationException("duplicate",
+                new ConstraintViolationException("duplicate", new SQLException("duplicate", "23505"), "uq_user_email_upper")));
+
+        assertThrows(ConflictException.class, () -> userService.add(UserMapper.toUserDto(user)));
+    }
+
+    @Test
+    @DisplayName("Тестирование добавления пользователя при нарушении другого ограничения")
+    void addUser_whenOtherConstraintViolated_thenRethrow() {
+        User user = User.builder().email("email@email.com").name("name").build();
+        DataIntegrityViolationException violation = new DataIntegrityViolationException("not null",
+                new ConstraintViolationException("not null", new SQLException("not null", "23502"), "users_name_not_null"));
+        when(userRepository.save(user)).thenThrow(violation);
+
+        DataIntegrityViolationException thrown = assertThrows(DataIntegrityViolationException.class,
+                () -> userService.add(UserMapper.toUserDto(user)));
+        assertSame(violation, thrown);
+    }
+
     @Test
     @DisplayName("Тестирование получения пользователя по Id")
     void getUserById_whenUserFound_thenReturnUserDto() {
@@ -147,9 +195,9 @@ class UserServiceImplTest {
                 .map(UserMapper::toUserDto)
                 .collect(Collectors.toList());
 
-        when(userRepository.findAll()).thenReturn(expectedUsers);
+        when(userRepository.findAll(PageRequest.of(0, 10, Sort.by("id")))).thenReturn(new PageImpl<>(expectedUsers));
 
-        List<UserDto> actualUsersDto = userService.getAll();
+        List<UserDto> actualUsersDto = userService.getAll(0, 10);
 
         assertEquals(actualUsersDto.size(), 1);
         assertEquals(actualUsersDto, expectedUserDto);
@@ -159,8 +207,7 @@ class UserServiceImplTest {
     @DisplayName("Тестирование удаления пользователя по Id")
     void deleteUser_whenUserExist_userRepositoryDeleteInvoked() {
         long userId = 0L;
-        User expectedUser = new User();
-        when(userRepository.findById(userId)).thenReturn(Optional.of(expectedUser));
+        when(userRepository.existsById(userId)).thenReturn(true);
 
         userService.delete(userId);
 
@@ -171,7 +218,7 @@ class UserServiceImplTest {
     @DisplayName("Тестирование удаления пользователя по несуществующему Id")
     void deleteUser_whenUserNotExist_ThrowObjectNotFoundException() {
         long userId = 0L;
-        when(userRepository.findById(userId)).thenReturn(Optional.empty());
+        when(userRepository.existsById(userId)).thenReturn(false);
 
         NotFoundException userNotFoundException = assertThrows(NotFoundException.class,
                 () -> userService.delete(userId));